@@ -0,0 +1,121 @@
+package com.rentigo.cache;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.BiPredicate;
+import java.util.function.Predicate;
+import java.util.function.ToLongFunction;
+
+// LRU bounded by the summed weight of its values rather than by entry count.
+public class WeightedLruCache<K, V> {
+    private final long maxWeight;
+    private final ToLongFunction<V> weigher;
+    private final LinkedHashMap<K, Weighted<V>> entries = new LinkedHashMap<>(256, 0.75f, true);
+
+    private long weight;
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long invalidations;
+
+    public WeightedLruCache(long maxWeight, ToLongFunction<V> weigher) {
+        this.maxWeight = maxWeight;
+        this.weigher = weigher;
+    }
+
+    public V get(K key) {
+        return get(key, value -> true);
+    }
+
+    // Entries failing the check are dropped and reported as a miss.
+    public synchronized V get(K key, Predicate<V> isValid) {
+        Weighted<V> entry = entries.get(key);
+        if (entry != null && !isValid.test(entry.value)) {
+            entries.remove(key);
+            weight -= entry.weight;
+            invalidations++;
+            entry = null;
+        }
+        if (entry == null) {
+            misses++;
+            return null;
+        }
+        hits++;
+        return entry.value;
+    }
+
+    public synchronized void put(K key, V value) {
+        long valueWeight = weigher.applyAsLong(value);
+        Weighted<V> previous = entries.remove(key);
+        if (previous != null) {
+            weight -= previous.weight;
+        }
+        if (valueWeight > maxWeight) {
+            return;
+        }
+        entries.put(key, new Weighted<>(value, valueWeight));
+        weight += valueWeight;
+
+        Iterator<Weighted<V>> eldest = entries.values().iterator();
+        while (weight > maxWeight && eldest.hasNext()) {
+            weight -= eldest.next().weight;
+            eldest.remove();
+            evictions++;
+        }
+    }
+
+    public synchronized void remove(K key) {
+        Weighted<V> entry = entries.remove(key);
+        if (entry != null) {
+            weight -= entry.weight;
+            invalidations++;
+        }
+    }
+
+    public synchronized void removeIf(BiPredicate<K, V> predicate) {
+        Iterator<Map.Entry<K, Weighted<V>>> iterator = entries.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<K, Weighted<V>> entry = iterator.next();
+            if (predicate.test(entry.getKey(), entry.getValue().value)) {
+                weight -= entry.getValue().weight;
+                iterator.remove();
+                invalidations++;
+            }
+        }
+    }
+
+    public synchronized void clear() {
+        invalidations += entries.size();
+        entries.clear();
+        weight = 0;
+    }
+
+    public synchronized Stats stats() {
+        return new Stats(entries.size(), weight, maxWeight, hits, misses, evictions, invalidations);
+    }
+
+    private static final class Weighted<V> {
+        private final V value;
+        private final long weight;
+
+        private Weighted(V value, long weight) {
+            this.value = value;
+            this.weight = weight;
+        }
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static final class Stats {
+        private final int entries;
+        private final long weight;
+        private final long maxWeight;
+        private final long hits;
+        private final long misses;
+        private final long evictions;
+        private final long invalidations;
+    }
+}
@@ -2,6 +2,8 @@ package com.rentigo.config;
 
 import com.rentigo.entity.*;
 import com.rentigo.repository.*;
+import com.rentigo.service.ReservationNumberGenerator;
+import com.rentigo.util.AmenityMask;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.CommandLineRunner;
@@ -25,6 +27,7 @@ public class DataLoader implements CommandLineRunner {
     private final ReviewRepository reviewRepository;
     private final FavoriteRepository favoriteRepository;
     private final PasswordEncoder passwordEncoder;
+    private final ReservationNumberGenerator reservationNumberGenerator;
 
     @Override
     @Transactional
@@ -114,51 +117,51 @@ public class DataLoader implements CommandLineRunner {
 
         places.add(createPlace("Apartament Stare Miasto", krakow, "Stare Miasto",
             "Piękny apartament w samym sercu Krakowa, 2 minuty od Rynku Głównego. Idealny dla par i rodzin szukających komfortowego noclegu w zabytkowej kamienicy z widokiem na Sukiennice. Apartament wyposażony w pełni w aneks kuchenny, łazienkę z prysznicem oraz klimatyzację.",
-            PlaceType.APARTMENT, new BigDecimal("320"), new BigDecimal("80"), 4, 2, 1, host1, fullAmenities));
+            PlaceType.APARTMENT, new BigDecimal("320"), new BigDecimal("80"), 4, 2, 1, host1, fullAmenities, 50.0614, 19.9372));
 
         places.add(createPlace("Studio Kazimierz", krakow, "Kazimierz",
             "Przytulne studio w sercu artystycznej dzielnicy Kazimierz. W pobliżu liczne kawiarnie, galerie i restauracje. Idealne dla singli lub par. Nowoczesny design połączony z klimatem historycznej dzielnicy. W cenie miejsce parkingowe.",
-            PlaceType.STUDIO, new BigDecimal("189"), new BigDecimal("50"), 2, 0, 1, host1, basicAmenities));
+            PlaceType.STUDIO, new BigDecimal("189"), new BigDecimal("50"), 2, 0, 1, host1, basicAmenities, 50.0516, 19.9449));
 
         places.add(createPlace("Loft Podgórze", krakow, "Podgórze",
             "Przestronny loft w industrialnym stylu w modnej dzielnicy Podgórze. 100m2 otwartej przestrzeni z wysokimi sufitami i dużymi oknami. Idealne dla grup przyjaciół lub rodzin z dziećmi. Taras na dachu z widokiem na Kraków.",
-            PlaceType.LOFT, new BigDecimal("450"), new BigDecimal("100"), 6, 3, 2, host2, fullAmenities));
+            PlaceType.LOFT, new BigDecimal("450"), new BigDecimal("100"), 6, 3, 2, host2, fullAmenities, 50.044, 19.9555));
 
         places.add(createPlace("Apartament Nowa Huta", krakow, "Nowa Huta",
             "Unikatowy apartament w socrealistycznej architekturze Nowej Huty. Oryginalny wystrój lat 50-tych połączony z nowoczesnymi udogodnieniami. Doskonała baza wypadowa do zwiedzania tej fascynującej dzielnicy.",
-            PlaceType.APARTMENT, new BigDecimal("180"), new BigDecimal("40"), 3, 1, 1, host3, basicAmenities));
+            PlaceType.APARTMENT, new BigDecimal("180"), new BigDecimal("40"), 3, 1, 1, host3, basicAmenities, 50.0717, 20.0372));
 
         places.add(createPlace("Luksusowy Penthouse Centrum", warszawa, "Śródmieście",
             "Ekskluzywny penthouse z panoramicznym widokiem na Warszawę. 150m2 luksusu w samym centrum stolicy. Taras z jacuzzi, w pełni wyposażona kuchnia, 3 sypialnie. Idealne dla wymagających gości szukających najwyższego standardu.",
-            PlaceType.APARTMENT, new BigDecimal("890"), new BigDecimal("150"), 6, 3, 2, host2, fullAmenities));
+            PlaceType.APARTMENT, new BigDecimal("890"), new BigDecimal("150"), 6, 3, 2, host2, fullAmenities, 52.2297, 21.0122));
 
         places.add(createPlace("Studio Praga", warszawa, "Praga-Północ",
             "Artystyczne studio w hipsterskiej dzielnicy Praga. Industrialny design, oryginalne grafiki na ścianach, vintage meble. W pobliżu najmodniejsze kluby i galerie Warszawy. Dla miłośników alternatywnej kultury.",
-            PlaceType.STUDIO, new BigDecimal("220"), new BigDecimal("60"), 2, 0, 1, host1, basicAmenities));
+            PlaceType.STUDIO, new BigDecimal("220"), new BigDecimal("60"), 2, 0, 1, host1, basicAmenities, 52.2545, 21.0352));
 
         places.add(createPlace("Apartament Stare Miasto Gdańsk", gdansk, "Stare Miasto",
             "Romantyczny apartament w zabytkowej kamienicy przy Długim Targu. Widok na fontannę Neptuna. Idealne dla par szukających niezapomnianych wrażeń. Stylowe wnętrze łączące historię z nowoczesnością.",
-            PlaceType.APARTMENT, new BigDecimal("380"), new BigDecimal("90"), 4, 2, 1, host3, fullAmenities));
+            PlaceType.APARTMENT, new BigDecimal("380"), new BigDecimal("90"), 4, 2, 1, host3, fullAmenities, 54.3485, 18.6533));
 
         places.add(createPlace("Dom z widokiem na morze", gdansk, "Sopot",
             "Piękny dom jednorodzinny 300m od plaży w Sopocie. Ogród, taras, grill. Idealne dla rodzin z dziećmi. 4 sypialnie, 2 łazienki, w pełni wyposażona kuchnia. Parking na 2 samochody.",
-            PlaceType.HOUSE, new BigDecimal("650"), new BigDecimal("120"), 8, 4, 2, host2, fullAmenities));
+            PlaceType.HOUSE, new BigDecimal("650"), new BigDecimal("120"), 8, 4, 2, host2, fullAmenities, 54.4418, 18.5601));
 
         places.add(createPlace("Apartament Rynek Wrocław", wroclaw, "Stare Miasto",
             "Elegancki apartament przy Rynku we Wrocławiu. Widok na ratusz i kolorowe kamienice. Wysoki standard wykończenia, klimatyzacja, szybkie WiFi. Doskonała lokalizacja w sercu miasta.",
-            PlaceType.APARTMENT, new BigDecimal("340"), new BigDecimal("75"), 4, 2, 1, host1, fullAmenities));
+            PlaceType.APARTMENT, new BigDecimal("340"), new BigDecimal("75"), 4, 2, 1, host1, fullAmenities, 51.11, 17.032));
 
         places.add(createPlace("Pokój w Ostrowie Tumskim", wroclaw, "Ostrów Tumski",
             "Przytulny pokój w historycznej części Wrocławia. Wspólna kuchnia i łazienka. Idealne dla backpackerów i osób szukających budżetowego noclegu w świetnej lokalizacji.",
-            PlaceType.ROOM, new BigDecimal("89"), new BigDecimal("20"), 2, 1, 1, host3, Set.of(amenities.get(0), amenities.get(4))));
+            PlaceType.ROOM, new BigDecimal("89"), new BigDecimal("20"), 2, 1, 1, host3, Set.of(amenities.get(0), amenities.get(4)), 51.1146, 17.0466));
 
         places.add(createPlace("Góralska Chata Zakopane", zakopane, "Centrum",
             "Autentyczna góralska chata w Zakopanem. Drewniane wnętrza, kominek, widok na Giewont. Idealna dla miłośników gór i tradycyjnej architektury. W zimie blisko wyciągów narciarskich.",
-            PlaceType.HOUSE, new BigDecimal("520"), new BigDecimal("100"), 6, 3, 2, host2, fullAmenities));
+            PlaceType.HOUSE, new BigDecimal("520"), new BigDecimal("100"), 6, 3, 2, host2, fullAmenities, 49.2992, 19.9496));
 
         places.add(createPlace("Apartament Pod Tatrami", zakopane, "Krupówki",
             "Nowoczesny apartament przy słynnych Krupówkach. Balkon z widokiem na Tatry, sauna, jacuzzi. Luksusowy wypoczynek w górskim klimacie. 5 minut pieszo do Gubałówki.",
-            PlaceType.APARTMENT, new BigDecimal("480"), new BigDecimal("90"), 4, 2, 1, host3, fullAmenities));
+            PlaceType.APARTMENT, new BigDecimal("480"), new BigDecimal("90"), 4, 2, 1, host3, fullAmenities, 49.2963, 19.9536));
 
         List<Place> savedPlaces = placeRepository.saveAll(places);
 
@@ -178,13 +181,15 @@ public class DataLoader implements CommandLineRunner {
     private Place createPlace(String name, City city, String district, String description,
                               PlaceType type, BigDecimal price, BigDecimal cleaningFee,
                               int maxGuests, int bedrooms, int bathrooms,
-                              User owner, Set<Amenity> amenities) {
+                              User owner, Set<Amenity> amenities, double latitude, double longitude) {
         return Place.builder()
             .name(name)
             .city(city)
             .district(district)
             .description(description)
             .address("ul. Przykładowa " + (int)(Math.random() * 100))
+            .latitude(latitude)
+            .longitude(longitude)
             .type(type)
             .pricePerNight(price)
             .cleaningFee(cleaningFee)
@@ -198,6 +203,7 @@ public class DataLoader implements CommandLineRunner {
             .status(PlaceStatus.ACTIVE)
             .owner(owner)
             .amenities(amenities)
+            .amenityMask(AmenityMask.of(amenities))
             .build();
     }
 
@@ -228,6 +234,7 @@ public class DataLoader implements CommandLineRunner {
         BigDecimal totalPrice = nightsPrice.add(cleaningFee).add(serviceFee);
 
         return Reservation.builder()
+            .reservationNumber(reservationNumberGenerator.next())
             .place(place)
             .user(user)
             .checkIn(checkIn)
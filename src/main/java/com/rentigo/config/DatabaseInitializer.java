@@ -0,0 +1,142 @@
+package com.rentigo.config;
+
+import com.rentigo.service.SequenceReservationNumberGenerator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import java.util.List;
+import java.util.Map;
+
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@RequiredArgsConstructor
+@Slf4j
+public class DatabaseInitializer implements CommandLineRunner {
+    private final JdbcTemplate jdbcTemplate;
+
+    private static final List<String> PLACE_SEARCH = List.of(
+        "CREATE EXTENSION IF NOT EXISTS unaccent",
+        "DO $$ BEGIN " +
+            "IF NOT EXISTS (SELECT 1 FROM pg_ts_config WHERE cfgname = 'polish_unaccent') THEN " +
+            "CREATE TEXT SEARCH CONFIGURATION polish_unaccent (COPY = simple); " +
+            "ALTER TEXT SEARCH CONFIGURATION polish_unaccent " +
+            "ALTER MAPPING FOR hword, hword_part, word WITH unaccent, simple; " +
+            "END IF; END $$",
+        "ALTER TABLE places ADD COLUMN IF NOT EXISTS search_vector tsvector",
+        "CREATE INDEX IF NOT EXISTS idx_places_search_vector ON places USING GIN (search_vector)",
+        "CREATE OR REPLACE FUNCTION places_search_document(" +
+            "p_name text, p_city_id bigint, p_district text, p_address text, p_description text) " +
+            "RETURNS tsvector AS $$ SELECT " +
+            "setweight(to_tsvector('polish_unaccent', coalesce(p_name, '')), 'A') || " +
+            "setweight(to_tsvector('polish_unaccent', coalesce((SELECT c.name FROM cities c WHERE c.id = p_city_id), '')), 'A') || " +
+            "setweight(to_tsvector('polish_unaccent', coalesce(p_district, '')), 'B') || " +
+            "setweight(to_tsvector('polish_unaccent', coalesce(p_address, '')), 'B') || " +
+            "setweight(to_tsvector('polish_unaccent', coalesce(p_description, '')), 'C') " +
+            "$$ LANGUAGE sql STABLE",
+        "CREATE OR REPLACE FUNCTION places_search_vector_refresh() RETURNS trigger AS $$ BEGIN " +
+            "NEW.search_vector := places_search_document(NEW.name, NEW.city_id, NEW.district, NEW.address, NEW.description); " +
+            "RETURN NEW; END $$ LANGUAGE plpgsql",
+        "DROP TRIGGER IF EXISTS places_search_vector_trg ON places",
+        "CREATE TRIGGER places_search_vector_trg BEFORE INSERT OR UPDATE OF name, city_id, district, address, description " +
+            "ON places FOR EACH ROW EXECUTE FUNCTION places_search_vector_refresh()",
+        "CREATE OR REPLACE FUNCTION cities_search_vector_refresh() RETURNS trigger AS $$ BEGIN " +
+            "UPDATE places SET search_vector = places_search_document(name, city_id, district, address, description) " +
+            "WHERE city_id = NEW.id; RETURN NEW; END $$ LANGUAGE plpgsql",
+        "DROP TRIGGER IF EXISTS cities_search_vector_trg ON cities",
+        "CREATE TRIGGER cities_search_vector_trg AFTER UPDATE OF name ON cities " +
+            "FOR EACH ROW EXECUTE FUNCTION cities_search_vector_refresh()",
+        "UPDATE places SET search_vector = places_search_document(name, city_id, district, address, description) " +
+            "WHERE search_vector IS NULL"
+    );
+
+    // Cities are renamed directly in the database, so cards follow the rename there, like search_vector.
+    private static final List<String> PLACE_CARDS = List.of(
+        "CREATE OR REPLACE FUNCTION cities_place_cards_refresh() RETURNS trigger AS $$ BEGIN " +
+            "UPDATE place_cards SET city_name = NEW.name, updated_at = now() WHERE city_id = NEW.id; " +
+            "RETURN NEW; END $$ LANGUAGE plpgsql",
+        "DROP TRIGGER IF EXISTS cities_place_cards_trg ON cities",
+        "CREATE TRIGGER cities_place_cards_trg AFTER UPDATE OF name ON cities " +
+            "FOR EACH ROW EXECUTE FUNCTION cities_place_cards_refresh()"
+    );
+
+    private static final List<String> PLACE_GEO = List.of(
+        "CREATE INDEX IF NOT EXISTS idx_places_geohash ON places (geohash varchar_pattern_ops)"
+    );
+
+    private static final List<String> PLACE_AMENITY_MASK = List.of(
+        "UPDATE places p SET amenity_mask = COALESCE((SELECT bit_or(CAST(1 AS bigint) << CAST(pa.amenity_id - 1 AS integer)) " +
+            "FROM place_amenities pa WHERE pa.place_id = p.id AND pa.amenity_id BETWEEN 1 AND 64), 0) " +
+            "WHERE p.amenity_mask IS NULL"
+    );
+
+    // Same inclusive overlap as ReservationRepository.findConflictingReservations. Bookings rely on it, so
+    // existing overlapping rows stop startup until they are resolved.
+    private static final List<String> RESERVATION_OVERLAP = List.of(
+        "CREATE EXTENSION IF NOT EXISTS btree_gist",
+        "DO $$ BEGIN " +
+            "IF NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conname = 'reservations_no_overlap') THEN " +
+            "ALTER TABLE reservations ADD CONSTRAINT reservations_no_overlap EXCLUDE USING gist " +
+            "(place_id WITH =, daterange(check_in, check_out, '[]') WITH &&) " +
+            "WHERE (status IN ('PENDING', 'CONFIRMED')); " +
+            "END IF; " +
+            "END $$"
+    );
+
+    private static final String RESERVATION_OVERLAP_EXISTS =
+        "SELECT EXISTS (SELECT 1 FROM pg_constraint WHERE conname = 'reservations_no_overlap')";
+
+    private static final String OVERLAPPING_RESERVATIONS =
+        "SELECT a.place_id, a.id AS first_id, a.check_in AS first_check_in, a.check_out AS first_check_out, " +
+            "b.id AS second_id, b.check_in AS second_check_in, b.check_out AS second_check_out " +
+            "FROM reservations a JOIN reservations b ON b.place_id = a.place_id AND b.id > a.id " +
+            "AND b.check_in <= a.check_out AND b.check_out >= a.check_in " +
+            "WHERE a.status IN ('PENDING', 'CONFIRMED') AND b.status IN ('PENDING', 'CONFIRMED') " +
+            "ORDER BY a.place_id, a.id, b.id LIMIT 100";
+
+    private static final List<String> RESERVATION_NUMBER = List.of(
+        "CREATE SEQUENCE IF NOT EXISTS reservation_number_seq START WITH 1 INCREMENT BY " +
+            SequenceReservationNumberGenerator.BLOCK_SIZE
+    );
+
+    private static final List<String> RESERVATION_LIFECYCLE = List.of(
+        "CREATE INDEX IF NOT EXISTS idx_reservations_confirmed_check_out ON reservations (check_out) " +
+            "WHERE status = 'CONFIRMED'",
+        "CREATE INDEX IF NOT EXISTS idx_reservations_pending_created_at ON reservations (created_at) " +
+            "WHERE status = 'PENDING'"
+    );
+
+    @Override
+    public void run(String... args) {
+        log.info("Applying database extensions...");
+        PLACE_SEARCH.forEach(jdbcTemplate::execute);
+        PLACE_CARDS.forEach(jdbcTemplate::execute);
+        PLACE_GEO.forEach(jdbcTemplate::execute);
+        PLACE_AMENITY_MASK.forEach(jdbcTemplate::execute);
+        applyReservationOverlap();
+        RESERVATION_NUMBER.forEach(jdbcTemplate::execute);
+        RESERVATION_LIFECYCLE.forEach(jdbcTemplate::execute);
+    }
+
+    private void applyReservationOverlap() {
+        if (!reservationOverlapExists()) {
+            List<Map<String, Object>> overlaps = jdbcTemplate.queryForList(OVERLAPPING_RESERVATIONS);
+            overlaps.forEach(row -> log.error(
+                "Overlapping reservations for place {}: #{} ({} - {}) and #{} ({} - {})", row.get("place_id"),
+                row.get("first_id"), row.get("first_check_in"), row.get("first_check_out"),
+                row.get("second_id"), row.get("second_check_in"), row.get("second_check_out")));
+            if (!overlaps.isEmpty()) {
+                throw new IllegalStateException("Cannot add constraint reservations_no_overlap: " +
+                    "resolve the overlapping reservations logged above before starting");
+            }
+        }
+        RESERVATION_OVERLAP.forEach(jdbcTemplate::execute);
+    }
+
+    private boolean reservationOverlapExists() {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(RESERVATION_OVERLAP_EXISTS, Boolean.class));
+    }
+}
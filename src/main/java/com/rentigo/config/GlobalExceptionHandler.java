@@ -5,7 +5,9 @@ import com.rentigo.exception.BadRequestException;
 import com.rentigo.exception.ConflictException;
 import com.rentigo.exception.ForbiddenException;
 import com.rentigo.exception.ResourceNotFoundException;
+import com.rentigo.util.DatabaseErrors;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.BadCredentialsException;
@@ -72,6 +74,16 @@ public class GlobalExceptionHandler {
             .body(ApiResponse.error(ex.getMessage()));
     }
 
+    @ExceptionHandler(DataIntegrityViolationException.class)
+    public ResponseEntity<ApiResponse> handleDataIntegrityViolation(DataIntegrityViolationException ex) {
+        if (DatabaseErrors.isExclusionViolation(ex)) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(ApiResponse.error(DatabaseErrors.RESERVATION_OVERLAP_MESSAGE));
+        }
+        log.error("Data integrity violation: ", ex);
+        return ResponseEntity.badRequest().body(ApiResponse.error("Operacja narusza ograniczenia danych"));
+    }
+
     @ExceptionHandler(RuntimeException.class)
     public ResponseEntity<ApiResponse> handleRuntimeException(RuntimeException ex) {
         log.error("Runtime exception: ", ex);
@@ -0,0 +1,54 @@
+package com.rentigo.controller;
+
+import com.rentigo.dto.CacheStatsDto;
+import com.rentigo.dto.SearchIndexStatsDto;
+import com.rentigo.dto.TransitionStatsDto;
+import com.rentigo.service.PlaceDetailCache;
+import com.rentigo.service.PlaceResultCache;
+import com.rentigo.service.PlaceSearchIndexService;
+import com.rentigo.service.ReservationTransitionService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/admin")
+@RequiredArgsConstructor
+@PreAuthorize("hasRole('ADMIN')")
+@SecurityRequirement(name = "Bearer Authentication")
+@Tag(name = "Administracja", description = "Diagnostyka indeksów i pamięci podręcznych")
+public class AdminController {
+    private final PlaceSearchIndexService placeSearchIndexService;
+    private final PlaceDetailCache placeDetailCache;
+    private final PlaceResultCache placeResultCache;
+    private final ReservationTransitionService reservationTransitionService;
+
+    @GetMapping("/search-index")
+    @Operation(summary = "Statystyki indeksu wyszukiwania w pamięci")
+    public ResponseEntity<SearchIndexStatsDto> getSearchIndexStats() {
+        return ResponseEntity.ok(placeSearchIndexService.getStats());
+    }
+
+    @GetMapping("/caches/place-details")
+    @Operation(summary = "Statystyki pamięci podręcznej szczegółów miejsc")
+    public ResponseEntity<CacheStatsDto> getPlaceDetailCacheStats() {
+        return ResponseEntity.ok(placeDetailCache.getStats());
+    }
+
+    @GetMapping("/caches/place-results")
+    @Operation(summary = "Statystyki pamięci podręcznej wyników wyszukiwania")
+    public ResponseEntity<CacheStatsDto> getPlaceResultCacheStats() {
+        return ResponseEntity.ok(placeResultCache.getStats());
+    }
+
+    @GetMapping("/reservations/transitions")
+    @Operation(summary = "Statystyki zmian statusów rezerwacji", description = "Liczba prób, konfliktów równoległych zmian i ponowień")
+    public ResponseEntity<List<TransitionStatsDto>> getReservationTransitionStats() {
+        return ResponseEntity.ok(reservationTransitionService.getStats());
+    }
+}
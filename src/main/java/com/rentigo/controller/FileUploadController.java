@@ -4,6 +4,7 @@ import com.rentigo.dto.response.ApiResponse;
 import com.rentigo.entity.Place;
 import com.rentigo.entity.PlaceImage;
 import com.rentigo.entity.User;
+import com.rentigo.event.PlaceChangedEvent;
 import com.rentigo.repository.PlaceImageRepository;
 import com.rentigo.security.CurrentUser;
 import com.rentigo.security.UserPrincipal;
@@ -64,6 +65,7 @@ public class FileUploadController {
                 .build();
 
         placeImage = placeImageRepository.save(placeImage);
+        placeService.publishChange(place, PlaceChangedEvent.Type.IMAGES_CHANGED);
 
         Map<String, Object> response = new HashMap<>();
         response.put("id", placeImage.getId());
@@ -89,6 +91,7 @@ public class FileUploadController {
 
         fileStorageService.deleteFile(image.getUrl());
         placeImageRepository.delete(image);
+        placeService.publishChange(image.getPlace(), PlaceChangedEvent.Type.IMAGES_CHANGED);
 
         return ResponseEntity.ok(ApiResponse.success("Zdjęcie zostało usunięte"));
     }
@@ -109,6 +112,7 @@ public class FileUploadController {
         List<PlaceImage> allImages = placeImageRepository.findByPlace(image.getPlace());
         allImages.forEach(img -> img.setIsMain(img.getId().equals(imageId)));
         placeImageRepository.saveAll(allImages);
+        placeService.publishChange(image.getPlace(), PlaceChangedEvent.Type.IMAGES_CHANGED);
 
         return ResponseEntity.ok(ApiResponse.success("Zdjęcie główne zostało ustawione"));
     }
@@ -1,16 +1,26 @@
 package com.rentigo.controller;
 
+import com.rentigo.dto.MapMarkerDto;
+import com.rentigo.dto.PlaceCalendarDto;
 import com.rentigo.dto.PlaceDto;
+import com.rentigo.dto.PlaceFacetsDto;
 import com.rentigo.dto.PlaceListDto;
 import com.rentigo.dto.request.CreatePlaceRequest;
 import com.rentigo.dto.response.ApiResponse;
 import com.rentigo.dto.response.PageResponse;
 import com.rentigo.entity.Place;
 import com.rentigo.entity.PlaceStatus;
+import com.rentigo.entity.PlaceType;
 import com.rentigo.entity.User;
+import com.rentigo.repository.PlaceFilter;
 import com.rentigo.security.CurrentUser;
 import com.rentigo.security.UserPrincipal;
+import com.rentigo.service.PlaceCalendarService;
+import com.rentigo.service.PlaceFacetService;
+import com.rentigo.service.PlaceGeoService;
 import com.rentigo.service.PlaceService;
+import com.rentigo.service.PlaceSimilarityService;
+import com.rentigo.service.PlaceTrendingService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -19,11 +29,16 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import javax.validation.Valid;
+import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/api/places")
@@ -31,15 +46,25 @@ import java.time.LocalDate;
 @Tag(name = "Miejsca", description = "Endpointy do zarządzania miejscami noclegowymi")
 public class PlaceController {
     private final PlaceService placeService;
+    private final PlaceFacetService placeFacetService;
+    private final PlaceGeoService placeGeoService;
+    private final PlaceSimilarityService placeSimilarityService;
+    private final PlaceTrendingService placeTrendingService;
+    private final PlaceCalendarService placeCalendarService;
 
     @GetMapping
-    @Operation(summary = "Pobierz listę aktywnych miejsc")
+    @Operation(summary = "Pobierz listę aktywnych miejsc", description = "Podanie parametru cursor (pusty dla pierwszej strony) włącza paginację kursorem")
     public ResponseEntity<PageResponse<PlaceListDto>> getPlaces(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "12") int size,
             @RequestParam(defaultValue = "createdAt") String sortBy,
             @RequestParam(defaultValue = "desc") String sortDir,
+            @RequestParam(required = false) String cursor,
             @CurrentUser UserPrincipal userPrincipal) {
+        if (cursor != null) {
+            User currentUser = userPrincipal != null ? userPrincipal.getUser() : null;
+            return ResponseEntity.ok(placeService.getActivePlacesAfter(cursor, sortBy, sortDir, size, currentUser));
+        }
         Pageable pageable = PageRequest.of(page, size,
             sortDir.equalsIgnoreCase("asc") ? Sort.by(sortBy).ascending() : Sort.by(sortBy).descending());
         User currentUser = userPrincipal != null ? userPrincipal.getUser() : null;
@@ -47,19 +72,27 @@ public class PlaceController {
     }
 
     @GetMapping("/search")
-    @Operation(summary = "Wyszukaj miejsca")
+    @Operation(summary = "Wyszukaj miejsca", description = "Domyślnie sortowanie według trafności (relevance). " +
+        "Paginacja kursorem (parametr cursor) wymaga sortowania po createdAt, pricePerNight lub rating")
     public ResponseEntity<PageResponse<PlaceListDto>> searchPlaces(
             @RequestParam String q,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "12") int size,
+            @RequestParam(defaultValue = "relevance") String sortBy,
+            @RequestParam(defaultValue = "desc") String sortDir,
+            @RequestParam(required = false) String cursor,
             @CurrentUser UserPrincipal userPrincipal) {
-        Pageable pageable = PageRequest.of(page, size);
         User currentUser = userPrincipal != null ? userPrincipal.getUser() : null;
-        return ResponseEntity.ok(PageResponse.of(placeService.searchPlaces(q, pageable, currentUser)));
+        if (cursor != null) {
+            return ResponseEntity.ok(placeService.searchPlacesAfter(q, cursor, sortBy, sortDir, size, currentUser));
+        }
+        Pageable pageable = PageRequest.of(page, size);
+        return ResponseEntity.ok(PageResponse.of(placeService.searchPlaces(q, sortBy, sortDir, pageable, currentUser)));
     }
 
     @GetMapping("/city/{cityId}")
-    @Operation(summary = "Pobierz miejsca w danym mieście")
+    @Operation(summary = "Pobierz miejsca w danym mieście", description = "sortBy: createdAt, pricePerNight lub rating; " +
+        "przy podanych datach wyniki zawierają cenę całkowitą pobytu i można je sortować według sortBy=totalPrice")
     public ResponseEntity<PageResponse<PlaceListDto>> getPlacesByCity(
             @PathVariable Long cityId,
             @RequestParam(required = false) Integer guests,
@@ -67,10 +100,98 @@ public class PlaceController {
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate checkOut,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "12") int size,
+            @RequestParam(defaultValue = "createdAt") String sortBy,
+            @RequestParam(defaultValue = "desc") String sortDir,
+            @RequestParam(required = false) String cursor,
             @CurrentUser UserPrincipal userPrincipal) {
+        User currentUser = userPrincipal != null ? userPrincipal.getUser() : null;
+        if (cursor != null) {
+            return ResponseEntity.ok(placeService.getPlacesByCityAfter(cityId, guests, checkIn, checkOut, cursor, sortBy, sortDir, size, currentUser));
+        }
         Pageable pageable = PageRequest.of(page, size);
+        return ResponseEntity.ok(PageResponse.of(placeService.getPlacesByCity(cityId, guests, checkIn, checkOut, sortBy, sortDir, pageable, currentUser)));
+    }
+
+    @GetMapping("/facets")
+    @Operation(summary = "Wyszukaj miejsca z filtrami", description = "Zwraca stronę wyników oraz liczności wg typu, udogodnień, przedziałów cenowych i liczby sypialni")
+    public ResponseEntity<PlaceFacetsDto> searchWithFacets(
+            @RequestParam(required = false) Long cityId,
+            @RequestParam(required = false) PlaceType type,
+            @RequestParam(required = false) BigDecimal minPrice,
+            @RequestParam(required = false) BigDecimal maxPrice,
+            @RequestParam(required = false) Integer bedrooms,
+            @RequestParam(required = false) Integer bathrooms,
+            @RequestParam(required = false) BigDecimal minRating,
+            @RequestParam(required = false) Integer guests,
+            @RequestParam(required = false) Set<Long> amenityIds,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "12") int size,
+            @RequestParam(defaultValue = "createdAt") String sortBy,
+            @RequestParam(defaultValue = "desc") String sortDir,
+            @CurrentUser UserPrincipal userPrincipal) {
+        PlaceFilter filter = PlaceFilter.builder()
+            .cityId(cityId)
+            .type(type)
+            .minPrice(minPrice)
+            .maxPrice(maxPrice)
+            .minBedrooms(bedrooms)
+            .minBathrooms(bathrooms)
+            .minRating(minRating)
+            .minGuests(guests != null && guests > 0 ? guests : 0)
+            .amenityIds(amenityIds)
+            .build();
+        User currentUser = userPrincipal != null ? userPrincipal.getUser() : null;
+        return ResponseEntity.ok(placeFacetService.search(filter, sortBy, sortDir, page, size, currentUser));
+    }
+
+    @GetMapping("/nearby")
+    @Operation(summary = "Pobierz miejsca w promieniu od punktu", description = "Wyniki posortowane według odległości")
+    public ResponseEntity<List<PlaceListDto>> getNearbyPlaces(
+            @RequestParam double lat,
+            @RequestParam double lng,
+            @RequestParam(defaultValue = "5") double radiusKm,
+            @RequestParam(defaultValue = "50") int limit,
+            @CurrentUser UserPrincipal userPrincipal) {
         User currentUser = userPrincipal != null ? userPrincipal.getUser() : null;
-        return ResponseEntity.ok(PageResponse.of(placeService.getPlacesByCity(cityId, guests, checkIn, checkOut, pageable, currentUser)));
+        return ResponseEntity.ok(placeGeoService.findNearby(lat, lng, radiusKm, limit, currentUser));
+    }
+
+    @GetMapping("/map")
+    @Operation(summary = "Pobierz znaczniki mapy", description = "Miejsca grupowane w klastry zależnie od poziomu przybliżenia")
+    public ResponseEntity<List<MapMarkerDto>> getMapMarkers(
+            @RequestParam double minLat,
+            @RequestParam double minLng,
+            @RequestParam double maxLat,
+            @RequestParam double maxLng,
+            @RequestParam int zoom) {
+        return ResponseEntity.ok(placeGeoService.getMapMarkers(minLat, minLng, maxLat, maxLng, zoom));
+    }
+
+    @GetMapping("/available")
+    @Operation(summary = "Pobierz miejsca dostępne w podanym terminie we wszystkich miastach",
+        description = "Wyniki zawierają cenę całkowitą pobytu; sortBy: createdAt, pricePerNight, rating lub totalPrice")
+    public ResponseEntity<PageResponse<PlaceListDto>> getAvailablePlaces(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate checkIn,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate checkOut,
+            @RequestParam(required = false) Integer guests,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "12") int size,
+            @RequestParam(defaultValue = "createdAt") String sortBy,
+            @RequestParam(defaultValue = "asc") String sortDir,
+            @CurrentUser UserPrincipal userPrincipal) {
+        Pageable pageable = PageRequest.of(page, size);
+        User currentUser = userPrincipal != null ? userPrincipal.getUser() : null;
+        return ResponseEntity.ok(PageResponse.of(placeService.getAvailablePlaces(guests, checkIn, checkOut, sortBy, sortDir, pageable, currentUser)));
+    }
+
+    @GetMapping("/trending")
+    @Operation(summary = "Pobierz popularne miejsca", description = "Ranking z ostatnich dni według wyświetleń, dodań do ulubionych i rezerwacji; opcjonalnie w danym mieście")
+    public ResponseEntity<List<PlaceListDto>> getTrendingPlaces(
+            @RequestParam(required = false) Long cityId,
+            @RequestParam(defaultValue = "10") int limit,
+            @CurrentUser UserPrincipal userPrincipal) {
+        User currentUser = userPrincipal != null ? userPrincipal.getUser() : null;
+        return ResponseEntity.ok(placeTrendingService.getTrendingPlaces(cityId, limit, currentUser));
     }
 
     @GetMapping("/{id}")
@@ -78,9 +199,37 @@ public class PlaceController {
     public ResponseEntity<PlaceDto> getPlace(
             @PathVariable Long id,
             @CurrentUser UserPrincipal userPrincipal) {
-        Place place = placeService.findById(id);
         User currentUser = userPrincipal != null ? userPrincipal.getUser() : null;
-        return ResponseEntity.ok(placeService.toDto(place, currentUser));
+        return ResponseEntity.ok(placeService.getPlaceDetails(id, currentUser));
+    }
+
+    @GetMapping("/{id}/similar")
+    @Operation(summary = "Pobierz podobne miejsca", description = "Lista wyliczana okresowo na podstawie cech miejsc i wspólnych ulubionych")
+    public ResponseEntity<List<PlaceListDto>> getSimilarPlaces(
+            @PathVariable Long id,
+            @RequestParam(defaultValue = "10") int limit,
+            @CurrentUser UserPrincipal userPrincipal) {
+        User currentUser = userPrincipal != null ? userPrincipal.getUser() : null;
+        return ResponseEntity.ok(placeSimilarityService.getSimilarPlaces(id, limit, currentUser));
+    }
+
+    @GetMapping("/{id}/calendar")
+    @Operation(summary = "Pobierz kalendarz zajętości miejsca", description = "Zajęte dni jako przedziały (początek, liczba dni); " +
+        "domyślnie rok od dziś. Obsługuje ETag / If-None-Match (304)")
+    public ResponseEntity<PlaceCalendarDto> getPlaceCalendar(
+            @PathVariable Long id,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            WebRequest webRequest) {
+        PlaceCalendarService.Calendar calendar = placeCalendarService.getCalendar(id, from, to);
+        // Matches If-None-Match lists, weak validators and "*", and writes the 304 with its ETag itself.
+        if (webRequest.checkNotModified(calendar.getEtag())) {
+            return null;
+        }
+        return ResponseEntity.ok()
+            .eTag(calendar.getEtag())
+            .cacheControl(CacheControl.noCache())
+            .body(calendar.getBody().get());
     }
 
     @PostMapping
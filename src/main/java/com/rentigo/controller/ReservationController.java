@@ -3,6 +3,7 @@ package com.rentigo.controller;
 import com.rentigo.dto.ReservationDto;
 import com.rentigo.dto.request.CreateReservationRequest;
 import com.rentigo.dto.response.ApiResponse;
+import com.rentigo.dto.response.PageResponse;
 import com.rentigo.entity.Reservation;
 import com.rentigo.security.CurrentUser;
 import com.rentigo.security.UserPrincipal;
@@ -12,6 +13,9 @@ import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import javax.validation.Valid;
@@ -23,6 +27,9 @@ import java.util.List;
 @SecurityRequirement(name = "Bearer Authentication")
 @Tag(name = "Rezerwacje", description = "Zarządzanie rezerwacjami")
 public class ReservationController {
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final Sort NEWEST_FIRST = Sort.by("createdAt", "id").descending();
+
     private final ReservationService reservationService;
 
     @GetMapping
@@ -55,6 +62,56 @@ public class ReservationController {
         return ResponseEntity.ok(reservationService.getHostReservations(userPrincipal.getUser()));
     }
 
+    @GetMapping("/paged")
+    @Operation(summary = "Pobierz moje rezerwacje (stronicowane)")
+    public ResponseEntity<PageResponse<ReservationDto>> getMyReservationsPage(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size,
+            @CurrentUser UserPrincipal userPrincipal) {
+        return ResponseEntity.ok(PageResponse.of(reservationService.getUserReservations(
+            userPrincipal.getUser(), pageOf(page, size, NEWEST_FIRST))));
+    }
+
+    @GetMapping("/upcoming/paged")
+    @Operation(summary = "Pobierz nadchodzące rezerwacje (stronicowane)")
+    public ResponseEntity<PageResponse<ReservationDto>> getUpcomingReservationsPage(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size,
+            @CurrentUser UserPrincipal userPrincipal) {
+        return ResponseEntity.ok(PageResponse.of(reservationService.getUpcomingReservations(
+            userPrincipal.getUser(), pageOf(page, size, Sort.by("checkIn", "id")))));
+    }
+
+    @GetMapping("/past/paged")
+    @Operation(summary = "Pobierz zakończone rezerwacje (stronicowane)")
+    public ResponseEntity<PageResponse<ReservationDto>> getPastReservationsPage(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size,
+            @CurrentUser UserPrincipal userPrincipal) {
+        return ResponseEntity.ok(PageResponse.of(reservationService.getPastReservations(
+            userPrincipal.getUser(), pageOf(page, size, Sort.by("checkOut", "id").descending()))));
+    }
+
+    @GetMapping("/cancelled/paged")
+    @Operation(summary = "Pobierz anulowane rezerwacje (stronicowane)")
+    public ResponseEntity<PageResponse<ReservationDto>> getCancelledReservationsPage(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size,
+            @CurrentUser UserPrincipal userPrincipal) {
+        return ResponseEntity.ok(PageResponse.of(reservationService.getCancelledReservations(
+            userPrincipal.getUser(), pageOf(page, size, NEWEST_FIRST))));
+    }
+
+    @GetMapping("/host/paged")
+    @Operation(summary = "Pobierz rezerwacje moich miejsc (stronicowane)")
+    public ResponseEntity<PageResponse<ReservationDto>> getHostReservationsPage(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size,
+            @CurrentUser UserPrincipal userPrincipal) {
+        return ResponseEntity.ok(PageResponse.of(reservationService.getHostReservations(
+            userPrincipal.getUser(), pageOf(page, size, NEWEST_FIRST))));
+    }
+
     @GetMapping("/{id}")
     @Operation(summary = "Pobierz szczegóły rezerwacji")
     public ResponseEntity<ReservationDto> getReservation(
@@ -100,4 +157,8 @@ public class ReservationController {
         reservationService.deleteReservation(id, userPrincipal.getUser());
         return ResponseEntity.ok(ApiResponse.success("Rezerwacja usunięta"));
     }
+
+    private static Pageable pageOf(int page, int size, Sort sort) {
+        return PageRequest.of(Math.max(page, 0), Math.min(Math.max(size, 1), MAX_PAGE_SIZE), sort);
+    }
 }
@@ -0,0 +1,26 @@
+package com.rentigo.controller;
+
+import com.rentigo.dto.SuggestionDto;
+import com.rentigo.service.SearchSuggestService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/search")
+@RequiredArgsConstructor
+@Tag(name = "Wyszukiwanie", description = "Podpowiedzi wyszukiwania")
+public class SearchController {
+    private final SearchSuggestService searchSuggestService;
+
+    @GetMapping("/suggest")
+    @Operation(summary = "Podpowiedzi dla pola wyszukiwania", description = "Miasta, dzielnice i nazwy miejsc pasujące do prefiksu, według liczby ofert")
+    public ResponseEntity<List<SuggestionDto>> suggest(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "8") int limit) {
+        return ResponseEntity.ok(searchSuggestService.suggest(q, limit));
+    }
+}
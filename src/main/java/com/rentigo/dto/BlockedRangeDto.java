@@ -0,0 +1,13 @@
+package com.rentigo.dto;
+
+import lombok.*;
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BlockedRangeDto {
+    private LocalDate start;
+    private int days;
+}
@@ -0,0 +1,33 @@
+package com.rentigo.dto;
+
+import com.rentigo.cache.WeightedLruCache;
+import lombok.*;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CacheStatsDto {
+    private int entries;
+    private long estimatedBytes;
+    private long maxBytes;
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long invalidations;
+    private double hitRate;
+
+    public static CacheStatsDto of(WeightedLruCache.Stats stats) {
+        long lookups = stats.getHits() + stats.getMisses();
+        return CacheStatsDto.builder()
+            .entries(stats.getEntries())
+            .estimatedBytes(stats.getWeight())
+            .maxBytes(stats.getMaxWeight())
+            .hits(stats.getHits())
+            .misses(stats.getMisses())
+            .evictions(stats.getEvictions())
+            .invalidations(stats.getInvalidations())
+            .hitRate(lookups > 0 ? (double) stats.getHits() / lookups : 0)
+            .build();
+    }
+}
@@ -0,0 +1,15 @@
+package com.rentigo.dto;
+
+import lombok.*;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class MapMarkerDto {
+    private String cell;
+    private double latitude;
+    private double longitude;
+    private long count;
+    private Long placeId;
+}
@@ -0,0 +1,16 @@
+package com.rentigo.dto;
+
+import lombok.*;
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PlaceCalendarDto {
+    private Long placeId;
+    private LocalDate from;
+    private LocalDate to;
+    private List<BlockedRangeDto> blocked;
+}
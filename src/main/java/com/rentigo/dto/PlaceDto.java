@@ -11,7 +11,7 @@ import java.util.Set;
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
-@Builder
+@Builder(toBuilder = true)
 public class PlaceDto {
     private Long id;
     private String name;
@@ -19,6 +19,8 @@ public class PlaceDto {
     private CityDto city;
     private String district;
     private String address;
+    private Double latitude;
+    private Double longitude;
     private PlaceType type;
     private BigDecimal pricePerNight;
     private BigDecimal cleaningFee;
@@ -0,0 +1,19 @@
+package com.rentigo.dto;
+
+import com.rentigo.dto.response.PageResponse;
+import com.rentigo.entity.PlaceType;
+import lombok.*;
+import java.util.List;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PlaceFacetsDto {
+    private PageResponse<PlaceListDto> places;
+    private Map<PlaceType, Long> types;
+    private Map<Long, Long> amenities;
+    private List<PriceBucketDto> prices;
+    private Map<Integer, Long> bedrooms;
+}
@@ -8,14 +8,18 @@ import java.math.BigDecimal;
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
-@Builder
+@Builder(toBuilder = true)
 public class PlaceListDto {
     private Long id;
     private String name;
     private String cityName;
     private String district;
+    private Double latitude;
+    private Double longitude;
     private PlaceType type;
     private BigDecimal pricePerNight;
+    private BigDecimal cleaningFee;
+    private BigDecimal totalPrice;
     private Integer maxGuests;
     private Integer bedrooms;
     private BigDecimal rating;
@@ -0,0 +1,14 @@
+package com.rentigo.dto;
+
+import lombok.*;
+import java.math.BigDecimal;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PriceBucketDto {
+    private BigDecimal min;
+    private BigDecimal max;
+    private long count;
+}
@@ -0,0 +1,15 @@
+package com.rentigo.dto;
+
+import lombok.*;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SearchIndexStatsDto {
+    private int indexedPlaces;
+    private int distinctTrigrams;
+    private long postingEntries;
+    private long estimatedBytes;
+    private long bytesPerPlace;
+}
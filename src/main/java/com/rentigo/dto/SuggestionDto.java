@@ -0,0 +1,14 @@
+package com.rentigo.dto;
+
+import lombok.*;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SuggestionDto {
+    private String type;
+    private Long id;
+    private String label;
+    private int listingCount;
+}
@@ -0,0 +1,18 @@
+package com.rentigo.dto;
+
+import com.rentigo.entity.ReservationTransition;
+import lombok.*;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TransitionStatsDto {
+    private ReservationTransition transition;
+    private long attempts;
+    private long applied;
+    private long conflicts;
+    private long rejected;
+    private long exhausted;
+    private double conflictRate;
+}
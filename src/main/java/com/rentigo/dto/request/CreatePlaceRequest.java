@@ -25,6 +25,14 @@ public class CreatePlaceRequest {
     @NotBlank(message = "Adres jest wymagany")
     private String address;
 
+    @DecimalMin(value = "-90.0", message = "Nieprawidłowa szerokość geograficzna")
+    @DecimalMax(value = "90.0", message = "Nieprawidłowa szerokość geograficzna")
+    private Double latitude;
+
+    @DecimalMin(value = "-180.0", message = "Nieprawidłowa długość geograficzna")
+    @DecimalMax(value = "180.0", message = "Nieprawidłowa długość geograficzna")
+    private Double longitude;
+
     @NotNull(message = "Typ noclegu jest wymagany")
     private PlaceType type;
 
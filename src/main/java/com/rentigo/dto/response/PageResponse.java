@@ -15,6 +15,7 @@ public class PageResponse<T> {
     private long totalElements;
     private int totalPages;
     private boolean last;
+    private String nextCursor;
 
     public static <T> PageResponse<T> of(Page<T> page) {
         return PageResponse.<T>builder()
@@ -26,4 +27,13 @@ public class PageResponse<T> {
             .last(page.isLast())
             .build();
     }
+
+    public static <T> PageResponse<T> ofCursor(List<T> content, int pageSize, String nextCursor) {
+        return PageResponse.<T>builder()
+            .content(content)
+            .pageSize(pageSize)
+            .last(nextCursor == null)
+            .nextCursor(nextCursor)
+            .build();
+    }
 }
@@ -0,0 +1,31 @@
+package com.rentigo.entity;
+
+import lombok.*;
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "idempotency_keys", indexes = @Index(name = "idx_idempotency_keys_created_at", columnList = "created_at"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class IdempotencyKey {
+    @Id
+    @Column(length = 128)
+    private String id;
+
+    @Column(nullable = false, length = 64)
+    private String fingerprint;
+
+    // Null while the first request is still running.
+    private Integer responseStatus;
+
+    private String contentType;
+
+    @Column(columnDefinition = "text")
+    private String responseBody;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
@@ -1,5 +1,6 @@
 package com.rentigo.entity;
 
+import com.rentigo.util.GeoHash;
 import lombok.*;
 import javax.persistence.*;
 import java.math.BigDecimal;
@@ -10,7 +11,11 @@ import java.util.List;
 import java.util.Set;
 
 @Entity
-@Table(name = "places")
+@Table(name = "places", indexes = {
+    @Index(name = "idx_places_status_created_at", columnList = "status, created_at, id"),
+    @Index(name = "idx_places_status_price", columnList = "status, price_per_night, id"),
+    @Index(name = "idx_places_status_rating", columnList = "status, rating, id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -36,6 +41,12 @@ public class Place {
     @Column(nullable = false)
     private String address;
 
+    private Double latitude;
+    private Double longitude;
+
+    @Column(length = GeoHash.MAX_PRECISION)
+    private String geohash;
+
     @Enumerated(EnumType.STRING)
     @Column(nullable = false)
     private PlaceType type;
@@ -75,6 +86,9 @@ public class Place {
     @ToString.Exclude
     private User owner;
 
+    @Column(name = "amenity_mask")
+    private Long amenityMask;
+
     @ManyToMany
     @JoinTable(
         name = "place_amenities",
@@ -119,6 +133,19 @@ public class Place {
         if (status == null) status = PlaceStatus.ACTIVE;
         if (rating == null) rating = BigDecimal.ZERO;
         if (reviewCount == null) reviewCount = 0;
+        if (amenityMask == null) amenityMask = 0L;
+        updateGeohash();
+    }
+
+    @PreUpdate
+    protected void onUpdate() {
+        updateGeohash();
+    }
+
+    private void updateGeohash() {
+        geohash = latitude != null && longitude != null
+            ? GeoHash.encode(latitude, longitude, GeoHash.MAX_PRECISION)
+            : null;
     }
 
     public String getMainImageUrl() {
@@ -0,0 +1,39 @@
+package com.rentigo.entity;
+
+import lombok.*;
+import javax.persistence.*;
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "place_activity", indexes = @Index(name = "idx_place_activity_bucket", columnList = "bucket"))
+@IdClass(PlaceActivity.Key.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PlaceActivity {
+    @Id
+    @Column(name = "place_id")
+    private Long placeId;
+
+    @Id
+    private LocalDateTime bucket;
+
+    @Column(nullable = false)
+    private Long views;
+
+    @Column(nullable = false)
+    private Long favorites;
+
+    @Column(nullable = false)
+    private Long reservations;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Long placeId;
+        private LocalDateTime bucket;
+    }
+}
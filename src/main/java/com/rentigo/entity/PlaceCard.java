@@ -0,0 +1,51 @@
+package com.rentigo.entity;
+
+import lombok.*;
+import javax.persistence.*;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "place_cards")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PlaceCard {
+    @Id
+    private Long placeId;
+
+    @Column(nullable = false)
+    private String name;
+
+    private Long cityId;
+    private String cityName;
+    private String district;
+    private Double latitude;
+    private Double longitude;
+
+    @Enumerated(EnumType.STRING)
+    private PlaceType type;
+
+    @Column(precision = 10, scale = 2)
+    private BigDecimal pricePerNight;
+
+    @Column(precision = 10, scale = 2)
+    private BigDecimal cleaningFee;
+
+    private Integer maxGuests;
+    private Integer bedrooms;
+
+    @Column(precision = 4, scale = 2)
+    private BigDecimal rating;
+
+    private Integer reviewCount;
+
+    @Enumerated(EnumType.STRING)
+    private PlaceStatus status;
+
+    private String mainImageUrl;
+    private Long ownerId;
+    private Integer reservationCount;
+    private LocalDateTime updatedAt;
+}
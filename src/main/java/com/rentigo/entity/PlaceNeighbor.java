@@ -0,0 +1,35 @@
+package com.rentigo.entity;
+
+import lombok.*;
+import javax.persistence.*;
+import java.io.Serializable;
+
+@Entity
+@Table(name = "place_neighbors", indexes = @Index(name = "idx_place_neighbors_neighbor", columnList = "neighbor_id"))
+@IdClass(PlaceNeighbor.Key.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PlaceNeighbor {
+    @Id
+    @Column(name = "place_id")
+    private Long placeId;
+
+    @Id
+    private Integer ordinal;
+
+    @Column(name = "neighbor_id", nullable = false)
+    private Long neighborId;
+
+    @Column(nullable = false)
+    private Float score;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Long placeId;
+        private Integer ordinal;
+    }
+}
@@ -7,7 +7,10 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "reservations")
+@Table(name = "reservations", indexes = {
+    @Index(name = "idx_reservations_place_status_dates", columnList = "place_id, status, check_in, check_out"),
+    @Index(name = "idx_reservations_user_created", columnList = "user_id, created_at")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -61,10 +64,6 @@ public class Reservation {
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
-        if (reservationNumber == null) {
-            reservationNumber = "RNT-" + java.time.Year.now().getValue() + "-" +
-                String.format("%04d", (int)(Math.random() * 10000));
-        }
     }
 
     public long getNights() {
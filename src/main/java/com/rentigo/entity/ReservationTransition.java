@@ -0,0 +1,27 @@
+package com.rentigo.entity;
+
+import lombok.Getter;
+import java.util.EnumSet;
+import java.util.Set;
+
+@Getter
+public enum ReservationTransition {
+    CONFIRM(ReservationStatus.CONFIRMED, EnumSet.of(ReservationStatus.PENDING),
+        "Rezerwacja nie może być potwierdzona"),
+    CANCEL(ReservationStatus.CANCELLED, EnumSet.of(ReservationStatus.PENDING, ReservationStatus.CONFIRMED),
+        "Rezerwacja nie może być anulowana");
+
+    private final ReservationStatus target;
+    private final Set<ReservationStatus> sources;
+    private final String rejection;
+
+    ReservationTransition(ReservationStatus target, Set<ReservationStatus> sources, String rejection) {
+        this.target = target;
+        this.sources = sources;
+        this.rejection = rejection;
+    }
+
+    public boolean allows(ReservationStatus from) {
+        return sources.contains(from);
+    }
+}
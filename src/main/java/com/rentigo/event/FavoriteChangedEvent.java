@@ -0,0 +1,17 @@
+package com.rentigo.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class FavoriteChangedEvent {
+    private final Long userId;
+    private final Long placeId;
+    private final Type type;
+
+    public enum Type {
+        ADDED,
+        REMOVED
+    }
+}
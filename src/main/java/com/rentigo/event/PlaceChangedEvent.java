@@ -0,0 +1,23 @@
+package com.rentigo.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class PlaceChangedEvent {
+    private final Long placeId;
+    private final Long cityId;
+    private final Long previousCityId;
+    private final Long ownerId;
+    private final Type type;
+
+    public enum Type {
+        CREATED,
+        UPDATED,
+        STATUS_CHANGED,
+        IMAGES_CHANGED,
+        RATING_CHANGED,
+        DELETED
+    }
+}
@@ -0,0 +1,23 @@
+package com.rentigo.event;
+
+import com.rentigo.entity.ReservationStatus;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import java.time.LocalDate;
+
+@Getter
+@AllArgsConstructor
+public class ReservationChangedEvent {
+    private final Long reservationId;
+    private final Long placeId;
+    private final LocalDate checkIn;
+    private final LocalDate checkOut;
+    private final ReservationStatus status;
+    private final Type type;
+
+    public enum Type {
+        CREATED,
+        STATUS_CHANGED,
+        DELETED
+    }
+}
@@ -0,0 +1,10 @@
+package com.rentigo.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class UserChangedEvent {
+    private final Long userId;
+}
@@ -0,0 +1,272 @@
+package com.rentigo.index;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Day slots form a ring buffer; a day's bitset holds the ordinals of places booked on it.
+// Stays are inclusive on both ends, matching ReservationRepository.findConflictingReservations.
+public class AvailabilityIndex {
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final int days;
+    private final BitSet[] bookedByDay;
+    private final BitSet activePlaces = new BitSet();
+    private final Map<Long, BitSet> placesByCity = new HashMap<>();
+    private final Map<Long, Integer> ordinalByPlace = new HashMap<>();
+    private final Map<Long, Stay> stays = new HashMap<>();
+
+    private long[] placeIds = new long[64];
+    private long[] placeCities = new long[64];
+    private int[] placeGuests = new int[64];
+    private final List<List<Stay>> placeStays = new ArrayList<>();
+    private int placeCount;
+    private long firstDay;
+
+    public AvailabilityIndex(int days, LocalDate today) {
+        this.days = days;
+        this.bookedByDay = new BitSet[days];
+        for (int i = 0; i < days; i++) {
+            bookedByDay[i] = new BitSet();
+        }
+        this.firstDay = today.toEpochDay();
+    }
+
+    public void putPlace(long placeId, long cityId, int maxGuests, boolean active) {
+        lock.writeLock().lock();
+        try {
+            int ordinal = ordinal(placeId);
+            BitSet previousCity = placesByCity.get(placeCities[ordinal]);
+            if (previousCity != null) {
+                previousCity.clear(ordinal);
+            }
+            placeCities[ordinal] = cityId;
+            placeGuests[ordinal] = maxGuests;
+            activePlaces.set(ordinal, active);
+            if (active) {
+                placesByCity.computeIfAbsent(cityId, id -> new BitSet()).set(ordinal);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void removePlace(long placeId) {
+        lock.writeLock().lock();
+        try {
+            Integer ordinal = ordinalByPlace.get(placeId);
+            if (ordinal == null) {
+                return;
+            }
+            activePlaces.clear(ordinal);
+            BitSet city = placesByCity.get(placeCities[ordinal]);
+            if (city != null) {
+                city.clear(ordinal);
+            }
+            for (Stay stay : new ArrayList<>(placeStays.get(ordinal))) {
+                removeStayLocked(stay.reservationId);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void putStay(long reservationId, long placeId, LocalDate checkIn, LocalDate checkOut) {
+        lock.writeLock().lock();
+        try {
+            removeStayLocked(reservationId);
+            long from = checkIn.toEpochDay();
+            long to = checkOut.toEpochDay();
+            if (to < firstDay) {
+                return;
+            }
+            Stay stay = new Stay(reservationId, ordinal(placeId), from, to);
+            stays.put(reservationId, stay);
+            placeStays.get(stay.place).add(stay);
+            mark(stay, from, to);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void removeStay(long reservationId) {
+        lock.writeLock().lock();
+        try {
+            removeStayLocked(reservationId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Returns place ids, newest first, or null when the range falls outside the horizon.
+    public List<Long> findAvailable(Long cityId, int minGuests, LocalDate checkIn, LocalDate checkOut) {
+        long from = checkIn.toEpochDay();
+        long to = checkOut.toEpochDay();
+
+        lock.readLock().lock();
+        try {
+            if (from < firstDay || to > lastDay()) {
+                return null;
+            }
+            BitSet candidates;
+            if (cityId == null) {
+                candidates = (BitSet) activePlaces.clone();
+            } else {
+                BitSet city = placesByCity.get(cityId);
+                if (city == null) {
+                    return List.of();
+                }
+                candidates = (BitSet) city.clone();
+                candidates.and(activePlaces);
+            }
+            for (long day = from; day <= to && !candidates.isEmpty(); day++) {
+                candidates.andNot(bookedByDay[slot(day)]);
+            }
+
+            long[] ids = new long[candidates.cardinality()];
+            int count = 0;
+            for (int ordinal = candidates.nextSetBit(0); ordinal >= 0; ordinal = candidates.nextSetBit(ordinal + 1)) {
+                if (placeGuests[ordinal] >= minGuests) {
+                    ids[count++] = placeIds[ordinal];
+                }
+            }
+            Arrays.sort(ids, 0, count);
+            List<Long> result = new ArrayList<>(count);
+            for (int i = count - 1; i >= 0; i--) {
+                result.add(ids[i]);
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void advanceTo(LocalDate today) {
+        long newFirstDay = today.toEpochDay();
+        lock.writeLock().lock();
+        try {
+            if (newFirstDay <= firstDay) {
+                return;
+            }
+            long previousLastDay = lastDay();
+            firstDay = newFirstDay;
+
+            Iterator<Stay> expired = stays.values().iterator();
+            while (expired.hasNext()) {
+                Stay stay = expired.next();
+                if (stay.to < firstDay) {
+                    expired.remove();
+                    placeStays.get(stay.place).remove(stay);
+                }
+            }
+
+            long refillFrom = Math.max(previousLastDay + 1, firstDay);
+            for (long day = refillFrom; day <= lastDay(); day++) {
+                bookedByDay[slot(day)].clear();
+            }
+            for (Stay stay : stays.values()) {
+                mark(stay, Math.max(stay.from, refillFrom), stay.to);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public Stats stats() {
+        lock.readLock().lock();
+        try {
+            long bytes = 0;
+            for (BitSet day : bookedByDay) {
+                bytes += 24 + day.size() / 8;
+            }
+            bytes += 20L * placeIds.length + 48L * stays.size() + 32L * ordinalByPlace.size();
+            return new Stats(activePlaces.cardinality(), stays.size(), days, bytes);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void removeStayLocked(long reservationId) {
+        Stay stay = stays.remove(reservationId);
+        if (stay == null) {
+            return;
+        }
+        List<Stay> others = placeStays.get(stay.place);
+        others.remove(stay);
+        long from = Math.max(stay.from, firstDay);
+        long to = Math.min(stay.to, lastDay());
+        for (long day = from; day <= to; day++) {
+            bookedByDay[slot(day)].clear(stay.place);
+        }
+        for (Stay other : others) {
+            if (other.from <= stay.to && other.to >= stay.from) {
+                mark(other, Math.max(other.from, stay.from), Math.min(other.to, stay.to));
+            }
+        }
+    }
+
+    private void mark(Stay stay, long from, long to) {
+        long start = Math.max(from, firstDay);
+        long end = Math.min(to, lastDay());
+        for (long day = start; day <= end; day++) {
+            bookedByDay[slot(day)].set(stay.place);
+        }
+    }
+
+    private int ordinal(long placeId) {
+        Integer existing = ordinalByPlace.get(placeId);
+        if (existing != null) {
+            return existing;
+        }
+        if (placeCount == placeIds.length) {
+            int capacity = placeCount * 2;
+            placeIds = Arrays.copyOf(placeIds, capacity);
+            placeCities = Arrays.copyOf(placeCities, capacity);
+            placeGuests = Arrays.copyOf(placeGuests, capacity);
+        }
+        int ordinal = placeCount++;
+        placeIds[ordinal] = placeId;
+        placeCities[ordinal] = -1;
+        placeStays.add(new ArrayList<>(2));
+        ordinalByPlace.put(placeId, ordinal);
+        return ordinal;
+    }
+
+    private long lastDay() {
+        return firstDay + days - 1;
+    }
+
+    private int slot(long day) {
+        return (int) Math.floorMod(day, (long) days);
+    }
+
+    private static final class Stay {
+        private final long reservationId;
+        private final int place;
+        private final long from;
+        private final long to;
+
+        private Stay(long reservationId, int place, long from, long to) {
+            this.reservationId = reservationId;
+            this.place = place;
+            this.from = from;
+            this.to = to;
+        }
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static final class Stats {
+        private final int places;
+        private final int stays;
+        private final int days;
+        private final long estimatedBytes;
+    }
+}
@@ -0,0 +1,170 @@
+package com.rentigo.index;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+// Approximate k-nearest neighbours over place feature vectors. Scores are weighted sums of per-feature
+// similarities in [0, 1]; co-favorites count how many users saved both places. Only candidates sharing the
+// city or the type within a neighbouring price band, or saved together, are scored; the rest of the catalog
+// is scanned only when those buckets hold fewer places than asked for.
+public class PlaceSimilarity {
+    private static final double CITY_WEIGHT = 2.0;
+    private static final double TYPE_WEIGHT = 1.0;
+    private static final double PRICE_WEIGHT = 1.5;
+    private static final double BEDROOMS_WEIGHT = 1.0;
+    private static final double AMENITIES_WEIGHT = 1.0;
+    private static final double RATING_WEIGHT = 0.5;
+    private static final double CO_FAVORITES_WEIGHT = 2.0;
+    private static final int CO_FAVORITES_SATURATION = 3;
+    public static final int MAX_FAVORITES_PER_USER = 50;
+    // Bands are about 1.65x wide in price; logPrice is non-negative, so a band always fits below PRICE_BANDS.
+    private static final double PRICE_BAND_WIDTH = 0.5;
+    private static final int PRICE_BANDS = 64;
+
+    @Getter
+    private final List<Features> places;
+    private final Map<Long, Features> byId = new HashMap<>();
+    private final Map<Long, List<Features>> byCityBand = new HashMap<>();
+    private final Map<Long, List<Features>> byTypeBand = new HashMap<>();
+    private final Map<Long, Map<Long, Integer>> coFavorites;
+
+    public PlaceSimilarity(List<Features> places, Collection<List<Long>> favoritesByUser) {
+        this.places = places;
+        this.coFavorites = countCoFavorites(favoritesByUser);
+        for (Features place : places) {
+            byId.put(place.id, place);
+            byCityBand.computeIfAbsent(bucket(place.cityId, band(place)), key -> new ArrayList<>()).add(place);
+            byTypeBand.computeIfAbsent(bucket(place.type, band(place)), key -> new ArrayList<>()).add(place);
+        }
+    }
+
+    public List<Neighbor> nearest(Features place, int limit) {
+        Map<Long, Integer> saved = coFavorites.getOrDefault(place.id, Map.of());
+        List<Features> candidates = candidates(place, saved);
+        if (candidates.size() < limit) {
+            candidates = places;
+        }
+        PriorityQueue<Neighbor> top = new PriorityQueue<>(limit + 1, Comparator.comparingDouble(Neighbor::getScore));
+        for (Features other : candidates) {
+            if (other.id == place.id) {
+                continue;
+            }
+            double score = score(place, other, saved.getOrDefault(other.id, 0));
+            if (top.size() < limit) {
+                top.add(new Neighbor(other.id, score));
+            } else if (score > top.peek().getScore()) {
+                top.poll();
+                top.add(new Neighbor(other.id, score));
+            }
+        }
+        List<Neighbor> nearest = new ArrayList<>(top);
+        nearest.sort(Comparator.comparingDouble(Neighbor::getScore).reversed().thenComparingLong(Neighbor::getPlaceId));
+        return nearest;
+    }
+
+    private List<Features> candidates(Features place, Map<Long, Integer> saved) {
+        Set<Long> seen = new HashSet<>();
+        List<Features> candidates = new ArrayList<>();
+        collect(byCityBand, place.cityId, band(place), seen, candidates);
+        collect(byTypeBand, place.type, band(place), seen, candidates);
+        for (Long id : saved.keySet()) {
+            Features other = byId.get(id);
+            if (other != null && seen.add(id)) {
+                candidates.add(other);
+            }
+        }
+        return candidates;
+    }
+
+    private static void collect(Map<Long, List<Features>> buckets, long group, int band,
+                                Set<Long> seen, List<Features> candidates) {
+        for (int neighbour = Math.max(0, band - 1); neighbour <= Math.min(PRICE_BANDS - 1, band + 1); neighbour++) {
+            for (Features other : buckets.getOrDefault(bucket(group, neighbour), List.of())) {
+                if (seen.add(other.id)) {
+                    candidates.add(other);
+                }
+            }
+        }
+    }
+
+    private static int band(Features place) {
+        return Math.min(PRICE_BANDS - 1, (int) (place.logPrice / PRICE_BAND_WIDTH));
+    }
+
+    private static long bucket(long group, int band) {
+        return group * PRICE_BANDS + band;
+    }
+
+    private static double score(Features a, Features b, int sharedFavorites) {
+        double score = 0;
+        if (a.cityId == b.cityId) {
+            score += CITY_WEIGHT;
+        }
+        if (a.type == b.type) {
+            score += TYPE_WEIGHT;
+        }
+        score += PRICE_WEIGHT * (1 - Math.min(1, Math.abs(a.logPrice - b.logPrice)));
+        score += BEDROOMS_WEIGHT / (1 + Math.abs(a.bedrooms - b.bedrooms));
+        long union = a.amenityMask | b.amenityMask;
+        if (union != 0) {
+            score += AMENITIES_WEIGHT * Long.bitCount(a.amenityMask & b.amenityMask) / Long.bitCount(union);
+        }
+        score += RATING_WEIGHT * (1 - Math.abs(a.rating - b.rating) / 5);
+        score += CO_FAVORITES_WEIGHT * Math.min(sharedFavorites, CO_FAVORITES_SATURATION) / CO_FAVORITES_SATURATION;
+        return score;
+    }
+
+    private static Map<Long, Map<Long, Integer>> countCoFavorites(Collection<List<Long>> favoritesByUser) {
+        Map<Long, Map<Long, Integer>> counts = new HashMap<>();
+        for (List<Long> favorites : favoritesByUser) {
+            List<Long> sample = favorites.size() > MAX_FAVORITES_PER_USER
+                ? favorites.subList(0, MAX_FAVORITES_PER_USER)
+                : favorites;
+            for (Long first : sample) {
+                for (Long second : sample) {
+                    if (!first.equals(second)) {
+                        counts.computeIfAbsent(first, id -> new HashMap<>()).merge(second, 1, Integer::sum);
+                    }
+                }
+            }
+        }
+        return counts;
+    }
+
+    @Getter
+    public static final class Features {
+        private final long id;
+        private final int type;
+        private final long cityId;
+        private final double logPrice;
+        private final int bedrooms;
+        private final long amenityMask;
+        private final double rating;
+
+        public Features(long id, int type, long cityId, double price, int bedrooms, long amenityMask, double rating) {
+            this.id = id;
+            this.type = type;
+            this.cityId = cityId;
+            this.logPrice = Math.log(Math.max(price, 1));
+            this.bedrooms = bedrooms;
+            this.amenityMask = amenityMask;
+            this.rating = rating;
+        }
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static final class Neighbor {
+        private final long placeId;
+        private final double score;
+    }
+}
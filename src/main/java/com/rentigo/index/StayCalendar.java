@@ -0,0 +1,70 @@
+package com.rentigo.index;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+// Interval set of one place's stays in epoch days, inclusive on both ends like
+// ReservationRepository.findConflictingReservations. Stays are ordered by start; tracking the longest stay
+// bounds how far before a range an overlapping stay can start, so lookups touch O(log n + k) stays.
+public class StayCalendar {
+    private final NavigableMap<Long, Map<Long, Long>> endsByStart = new TreeMap<>();
+    private final Map<Long, Long> startByReservation = new HashMap<>();
+    private long maxLength;
+    private long version;
+
+    public synchronized void put(long reservationId, long start, long end) {
+        removeLocked(reservationId);
+        endsByStart.computeIfAbsent(start, day -> new HashMap<>()).put(reservationId, end);
+        startByReservation.put(reservationId, start);
+        maxLength = Math.max(maxLength, end - start);
+        version++;
+    }
+
+    public synchronized void remove(long reservationId) {
+        if (removeLocked(reservationId)) {
+            version++;
+        }
+    }
+
+    public synchronized long getVersion() {
+        return version;
+    }
+
+    // Merged, clipped [start, end] day ranges blocked within [from, to].
+    public synchronized List<long[]> blocked(long from, long to) {
+        List<long[]> ranges = new ArrayList<>();
+        for (Map.Entry<Long, Map<Long, Long>> group : endsByStart.subMap(from - maxLength, true, to, true).entrySet()) {
+            long start = Math.max(group.getKey(), from);
+            for (long stayEnd : group.getValue().values()) {
+                long end = Math.min(stayEnd, to);
+                if (end < from) {
+                    continue;
+                }
+                long[] last = ranges.isEmpty() ? null : ranges.get(ranges.size() - 1);
+                if (last != null && start <= last[1] + 1) {
+                    last[1] = Math.max(last[1], end);
+                } else {
+                    ranges.add(new long[]{start, end});
+                }
+            }
+        }
+        return ranges;
+    }
+
+    private boolean removeLocked(long reservationId) {
+        Long start = startByReservation.remove(reservationId);
+        if (start == null) {
+            return false;
+        }
+        Map<Long, Long> group = endsByStart.get(start);
+        group.remove(reservationId);
+        if (group.isEmpty()) {
+            endsByStart.remove(start);
+        }
+        return true;
+    }
+}
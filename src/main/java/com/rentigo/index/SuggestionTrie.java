@@ -0,0 +1,235 @@
+package com.rentigo.index;
+
+import com.rentigo.util.SearchText;
+import lombok.AccessLevel;
+import lombok.Getter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Radix trie over folded text. Each node caches the top entries of its subtree, so a lookup is a
+// single walk down the query prefix followed by a copy of that node's list.
+public class SuggestionTrie {
+    private static final Comparator<Entry> RANKING = Comparator.comparingInt(Entry::getWeight).reversed()
+        .thenComparingInt(Entry::getPriority)
+        .thenComparing(Entry::getLabel);
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final int topK;
+    private final Node root = new Node("", null);
+    private final Map<String, Entry> entries = new HashMap<>();
+
+    public SuggestionTrie(int topK) {
+        this.topK = topK;
+    }
+
+    public void put(String key, String type, long id, int priority, String label, int weight) {
+        lock.writeLock().lock();
+        try {
+            Entry existing = entries.get(key);
+            if (existing != null && existing.label.equals(label)) {
+                existing.weight = weight;
+                existing.terminals.forEach(this::refreshUpwards);
+                return;
+            }
+            if (existing != null) {
+                removeLocked(existing);
+            }
+            Entry entry = new Entry(key, type, id, priority, label, weight);
+            entries.put(key, entry);
+            for (String text : keys(label)) {
+                Node node = insert(text);
+                node.terminals.add(entry);
+                entry.terminals.add(node);
+                refreshUpwards(node);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(String key) {
+        lock.writeLock().lock();
+        try {
+            Entry entry = entries.get(key);
+            if (entry != null) {
+                removeLocked(entry);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            root.children.clear();
+            root.terminals.clear();
+            root.top = List.of();
+            entries.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public List<Entry> suggest(String query, int limit) {
+        String key = String.join(" ", SearchText.tokens(query));
+        if (key.isEmpty()) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            Node node = root;
+            int position = 0;
+            while (position < key.length()) {
+                Node child = node.children.get(key.charAt(position));
+                if (child == null) {
+                    return List.of();
+                }
+                int matched = commonPrefix(child.edge, key, position);
+                if (position + matched == key.length()) {
+                    node = child;
+                    break;
+                }
+                if (matched < child.edge.length()) {
+                    return List.of();
+                }
+                position += matched;
+                node = child;
+            }
+            List<Entry> top = node.top;
+            return new ArrayList<>(top.subList(0, Math.min(limit, top.size())));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void removeLocked(Entry entry) {
+        entries.remove(entry.key);
+        for (Node node : entry.terminals) {
+            node.terminals.remove(entry);
+            refreshUpwards(node);
+            prune(node);
+        }
+        entry.terminals.clear();
+    }
+
+    // Every word start is a key, so "kaz" finds "Studio Kazimierz".
+    private static Set<String> keys(String label) {
+        List<String> tokens = SearchText.tokens(label);
+        Set<String> keys = new LinkedHashSet<>();
+        for (int i = 0; i < tokens.size(); i++) {
+            keys.add(String.join(" ", tokens.subList(i, tokens.size())));
+        }
+        return keys;
+    }
+
+    private Node insert(String key) {
+        Node node = root;
+        int position = 0;
+        while (position < key.length()) {
+            char first = key.charAt(position);
+            Node child = node.children.get(first);
+            if (child == null) {
+                Node leaf = new Node(key.substring(position), node);
+                node.children.put(first, leaf);
+                return leaf;
+            }
+            int matched = commonPrefix(child.edge, key, position);
+            if (matched < child.edge.length()) {
+                Node split = new Node(child.edge.substring(0, matched), node);
+                node.children.put(first, split);
+                child.edge = child.edge.substring(matched);
+                child.parent = split;
+                split.children.put(child.edge.charAt(0), child);
+                split.top = child.top;
+                child = split;
+            }
+            position += matched;
+            node = child;
+        }
+        return node;
+    }
+
+    private void prune(Node node) {
+        while (node != root && node.terminals.isEmpty() && node.children.isEmpty()) {
+            Node parent = node.parent;
+            parent.children.remove(node.edge.charAt(0));
+            node = parent;
+        }
+    }
+
+    private void refreshUpwards(Node node) {
+        for (Node current = node; current != null; current = current.parent) {
+            current.top = computeTop(current);
+        }
+    }
+
+    private List<Entry> computeTop(Node node) {
+        Set<Entry> candidates = new LinkedHashSet<>(node.terminals);
+        for (Node child : node.children.values()) {
+            candidates.addAll(child.top);
+        }
+        List<Entry> sorted = new ArrayList<>(candidates);
+        sorted.sort(RANKING);
+        return sorted.size() > topK ? List.copyOf(sorted.subList(0, topK)) : List.copyOf(sorted);
+    }
+
+    private static int commonPrefix(String edge, String key, int offset) {
+        int max = Math.min(edge.length(), key.length() - offset);
+        int i = 0;
+        while (i < max && edge.charAt(i) == key.charAt(offset + i)) {
+            i++;
+        }
+        return i;
+    }
+
+    private static final class Node {
+        private String edge;
+        private Node parent;
+        private final Map<Character, Node> children = new HashMap<>(4);
+        private final List<Entry> terminals = new ArrayList<>(1);
+        private List<Entry> top = List.of();
+
+        private Node(String edge, Node parent) {
+            this.edge = edge;
+            this.parent = parent;
+        }
+    }
+
+    @Getter
+    public static final class Entry {
+        @Getter(AccessLevel.NONE)
+        private final String key;
+        private final String type;
+        private final long id;
+        private final int priority;
+        private final String label;
+        private int weight;
+        @Getter(AccessLevel.NONE)
+        private final List<Node> terminals = new ArrayList<>(2);
+
+        private Entry(String key, String type, long id, int priority, String label, int weight) {
+            this.key = key;
+            this.type = type;
+            this.id = id;
+            this.priority = priority;
+            this.label = label;
+            this.weight = weight;
+        }
+    }
+}
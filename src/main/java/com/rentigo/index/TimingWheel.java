@@ -0,0 +1,106 @@
+package com.rentigo.index;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Hierarchical timing wheel of ids keyed by deadline. Level n slots span 64^n ticks; a higher level slot is
+// cascaded into lower levels when the tick reaches it, so advancing costs the expired and cascaded entries
+// only. Deadlines past the top level are parked in its furthest slot and re-placed on every cascade.
+public class TimingWheel {
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int SLOT_MASK = SLOTS - 1;
+    private static final int LEVELS = 4;
+    private static final long MAX_DELTA = (1L << (SLOT_BITS * LEVELS)) - 1;
+
+    private final long tickMillis;
+    private final List<List<Entry>> slots = new ArrayList<>(LEVELS * SLOTS);
+    private final Map<Long, Entry> entries = new HashMap<>();
+    private long currentTick;
+
+    public TimingWheel(long tickMillis, long nowMillis) {
+        this.tickMillis = tickMillis;
+        this.currentTick = nowMillis / tickMillis;
+        for (int i = 0; i < LEVELS * SLOTS; i++) {
+            slots.add(new ArrayList<>());
+        }
+    }
+
+    public synchronized void schedule(long id, long deadlineMillis) {
+        Entry entry = new Entry(id, Math.max((deadlineMillis + tickMillis - 1) / tickMillis, currentTick + 1));
+        Entry previous = entries.put(id, entry);
+        if (previous != null) {
+            previous.cancelled = true;
+        }
+        place(entry);
+    }
+
+    public synchronized void cancel(long id) {
+        Entry entry = entries.remove(id);
+        if (entry != null) {
+            entry.cancelled = true;
+        }
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized List<Long> advance(long nowMillis) {
+        List<Long> expired = new ArrayList<>();
+        long target = nowMillis / tickMillis;
+        while (currentTick < target) {
+            currentTick++;
+            for (int level = 1; level < LEVELS && slotIndex(currentTick, level - 1) == 0; level++) {
+                for (Entry entry : drain(level, slotIndex(currentTick, level))) {
+                    if (!entry.cancelled) {
+                        place(entry);
+                    }
+                }
+            }
+            for (Entry entry : drain(0, slotIndex(currentTick, 0))) {
+                if (!entry.cancelled) {
+                    entries.remove(entry.id);
+                    expired.add(entry.id);
+                }
+            }
+        }
+        return expired;
+    }
+
+    private void place(Entry entry) {
+        long delta = Math.min(entry.tick - currentTick, MAX_DELTA);
+        long tick = currentTick + delta;
+        int level = 0;
+        while (level < LEVELS - 1 && delta >= 1L << (SLOT_BITS * (level + 1))) {
+            level++;
+        }
+        slots.get(level * SLOTS + slotIndex(tick, level)).add(entry);
+    }
+
+    private List<Entry> drain(int level, int index) {
+        List<Entry> slot = slots.get(level * SLOTS + index);
+        if (slot.isEmpty()) {
+            return slot;
+        }
+        slots.set(level * SLOTS + index, new ArrayList<>());
+        return slot;
+    }
+
+    private static int slotIndex(long tick, int level) {
+        return (int) ((tick >>> (SLOT_BITS * level)) & SLOT_MASK);
+    }
+
+    private static final class Entry {
+        private final long id;
+        private final long tick;
+        private boolean cancelled;
+
+        private Entry(long id, long tick) {
+            this.id = id;
+            this.tick = tick;
+        }
+    }
+}
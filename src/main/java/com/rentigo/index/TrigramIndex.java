@@ -0,0 +1,373 @@
+package com.rentigo.index;
+
+import com.rentigo.util.SearchText;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+public class TrigramIndex {
+    private static final int CHAR_BITS = 6;
+    private static final int TRIGRAM_SPACE = 1 << (CHAR_BITS * 3);
+    private static final int PAD = 36;
+    private static final double MIN_MATCH_RATIO = 0.5;
+    private static final int MAX_TYPO_TRIGRAMS = 3;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Postings[] postings = new Postings[TRIGRAM_SPACE];
+    private final Map<Long, Integer> docByKey = new HashMap<>();
+    private final ThreadLocal<int[]> hitCounters = ThreadLocal.withInitial(() -> new int[0]);
+
+    private long[] keys = new long[64];
+    private int[][] docTrigrams = new int[64][];
+    private String[] docTexts = new String[64];
+    private String[] docNames = new String[64];
+    private int[] freeDocs = new int[16];
+    private int freeCount;
+    private int docCount;
+    private int size;
+
+    public void put(long key, String name, String... fields) {
+        String foldedName = SearchText.fold(name);
+        StringBuilder text = new StringBuilder(foldedName);
+        for (String field : fields) {
+            if (field != null) {
+                text.append(' ').append(SearchText.fold(field));
+            }
+        }
+        String foldedText = text.toString();
+        int[] trigrams = documentTrigrams(foldedText);
+
+        lock.writeLock().lock();
+        try {
+            removeLocked(key);
+            int doc = allocateDoc();
+            keys[doc] = key;
+            docTrigrams[doc] = trigrams;
+            docTexts[doc] = foldedText;
+            docNames[doc] = foldedName;
+            docByKey.put(key, doc);
+            for (int trigram : trigrams) {
+                Postings list = postings[trigram];
+                if (list == null) {
+                    list = new Postings();
+                    postings[trigram] = list;
+                }
+                list.add(doc);
+            }
+            size++;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long key) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(key);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            Arrays.fill(postings, null);
+            docByKey.clear();
+            keys = new long[64];
+            docTrigrams = new int[64][];
+            docTexts = new String[64];
+            docNames = new String[64];
+            freeCount = 0;
+            docCount = 0;
+            size = 0;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public List<Match> search(String query, int limit) {
+        String folded = String.join(" ", SearchText.tokens(query));
+        int[] queryTrigrams = queryTrigrams(folded);
+        if (queryTrigrams.length == 0 || limit <= 0) {
+            return List.of();
+        }
+        int minMatches = Math.max(
+            (int) Math.ceil(queryTrigrams.length * MIN_MATCH_RATIO),
+            queryTrigrams.length - MAX_TYPO_TRIGRAMS);
+
+        lock.readLock().lock();
+        try {
+            Postings[] lists = new Postings[queryTrigrams.length];
+            int present = 0;
+            for (int trigram : queryTrigrams) {
+                Postings list = postings[trigram];
+                if (list != null && list.size > 0) {
+                    lists[present++] = list;
+                }
+            }
+            if (present < minMatches) {
+                return List.of();
+            }
+
+            int[] candidates = present == queryTrigrams.length
+                ? intersect(Arrays.copyOf(lists, present))
+                : null;
+            if (candidates == null || candidates.length == 0) {
+                candidates = countMatches(lists, present, minMatches);
+            }
+
+            List<Match> matches = new ArrayList<>(candidates.length);
+            for (int doc : candidates) {
+                matches.add(new Match(keys[doc], score(doc, queryTrigrams, folded)));
+            }
+            matches.sort(Comparator.comparingDouble(Match::getScore).reversed()
+                .thenComparing(Comparator.comparingLong(Match::getKey).reversed()));
+            return matches.size() > limit ? new ArrayList<>(matches.subList(0, limit)) : matches;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public Stats stats() {
+        lock.readLock().lock();
+        try {
+            long postingEntries = 0;
+            long postingBytes = (long) TRIGRAM_SPACE * 4 + 16;
+            int trigramCount = 0;
+            for (Postings list : postings) {
+                if (list != null) {
+                    trigramCount++;
+                    postingEntries += list.size;
+                    postingBytes += 16 + 16 + 4L * list.docs.length;
+                }
+            }
+            long docBytes = 8L * keys.length + 4L * docTrigrams.length * 2 + 32L * docByKey.size();
+            for (int doc = 0; doc < docCount; doc++) {
+                if (docTrigrams[doc] != null) {
+                    docBytes += 16 + 4L * docTrigrams[doc].length;
+                    docBytes += 40 + docTexts[doc].length() + 40 + docNames[doc].length();
+                }
+            }
+            return new Stats(size, trigramCount, postingEntries, postingBytes + docBytes);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void removeLocked(long key) {
+        Integer doc = docByKey.remove(key);
+        if (doc == null) {
+            return;
+        }
+        for (int trigram : docTrigrams[doc]) {
+            Postings list = postings[trigram];
+            if (list != null) {
+                list.remove(doc);
+                if (list.size == 0) {
+                    postings[trigram] = null;
+                }
+            }
+        }
+        docTrigrams[doc] = null;
+        docTexts[doc] = null;
+        docNames[doc] = null;
+        if (freeCount == freeDocs.length) {
+            freeDocs = Arrays.copyOf(freeDocs, freeCount * 2);
+        }
+        freeDocs[freeCount++] = doc;
+        size--;
+    }
+
+    private int allocateDoc() {
+        if (freeCount > 0) {
+            return freeDocs[--freeCount];
+        }
+        if (docCount == keys.length) {
+            int capacity = docCount * 2;
+            keys = Arrays.copyOf(keys, capacity);
+            docTrigrams = Arrays.copyOf(docTrigrams, capacity);
+            docTexts = Arrays.copyOf(docTexts, capacity);
+            docNames = Arrays.copyOf(docNames, capacity);
+        }
+        return docCount++;
+    }
+
+    private int[] intersect(Postings[] lists) {
+        Arrays.sort(lists, Comparator.comparingInt(list -> list.size));
+        int[] result = Arrays.copyOf(lists[0].docs, lists[0].size);
+        int resultSize = result.length;
+        for (int i = 1; i < lists.length && resultSize > 0; i++) {
+            Postings other = lists[i];
+            int kept = 0;
+            int from = 0;
+            for (int j = 0; j < resultSize; j++) {
+                int position = Arrays.binarySearch(other.docs, from, other.size, result[j]);
+                if (position >= 0) {
+                    result[kept++] = result[j];
+                    from = position + 1;
+                } else {
+                    from = -position - 1;
+                }
+            }
+            resultSize = kept;
+        }
+        return Arrays.copyOf(result, resultSize);
+    }
+
+    private int[] countMatches(Postings[] lists, int present, int minMatches) {
+        int[] counters = hitCounters.get();
+        if (counters.length < docCount) {
+            counters = new int[keys.length];
+            hitCounters.set(counters);
+        }
+        int[] touched = new int[16];
+        int touchedCount = 0;
+        for (int i = 0; i < present; i++) {
+            Postings list = lists[i];
+            for (int j = 0; j < list.size; j++) {
+                int doc = list.docs[j];
+                if (counters[doc]++ == 0) {
+                    if (touchedCount == touched.length) {
+                        touched = Arrays.copyOf(touched, touchedCount * 2);
+                    }
+                    touched[touchedCount++] = doc;
+                }
+            }
+        }
+        int[] result = new int[touchedCount];
+        int resultSize = 0;
+        for (int i = 0; i < touchedCount; i++) {
+            int doc = touched[i];
+            if (counters[doc] >= minMatches) {
+                result[resultSize++] = doc;
+            }
+            counters[doc] = 0;
+        }
+        return Arrays.copyOf(result, resultSize);
+    }
+
+    private double score(int doc, int[] queryTrigrams, String folded) {
+        int[] trigrams = docTrigrams[doc];
+        int matched = 0;
+        for (int trigram : queryTrigrams) {
+            if (Arrays.binarySearch(trigrams, trigram) >= 0) {
+                matched++;
+            }
+        }
+        double score = (double) matched / queryTrigrams.length;
+        if (docNames[doc].startsWith(folded)) {
+            score += 1.0;
+        } else if (docNames[doc].contains(folded)) {
+            score += 0.75;
+        } else if (docTexts[doc].contains(folded)) {
+            score += 0.5;
+        }
+        return score;
+    }
+
+    private static int[] documentTrigrams(String folded) {
+        return trigrams(folded, true);
+    }
+
+    private static int[] queryTrigrams(String folded) {
+        return trigrams(folded, false);
+    }
+
+    private static int[] trigrams(String folded, boolean padEnd) {
+        int[] result = new int[16];
+        int count = 0;
+        for (String token : folded.split(" ")) {
+            if (token.isEmpty()) {
+                continue;
+            }
+            int length = token.length() + 2 + (padEnd ? 1 : 0);
+            int[] codes = new int[length];
+            codes[0] = PAD;
+            codes[1] = PAD;
+            for (int i = 0; i < token.length(); i++) {
+                codes[i + 2] = code(token.charAt(i));
+            }
+            if (padEnd) {
+                codes[length - 1] = PAD;
+            }
+            for (int i = 0; i + 2 < length; i++) {
+                if (count == result.length) {
+                    result = Arrays.copyOf(result, count * 2);
+                }
+                result[count++] = (codes[i] << (CHAR_BITS * 2)) | (codes[i + 1] << CHAR_BITS) | codes[i + 2];
+            }
+        }
+        int[] sorted = Arrays.copyOf(result, count);
+        Arrays.sort(sorted);
+        int unique = 0;
+        for (int i = 0; i < sorted.length; i++) {
+            if (i == 0 || sorted[i] != sorted[i - 1]) {
+                sorted[unique++] = sorted[i];
+            }
+        }
+        return Arrays.copyOf(sorted, unique);
+    }
+
+    private static int code(char c) {
+        if (c >= '0' && c <= '9') {
+            return c - '0';
+        }
+        if (c >= 'a' && c <= 'z') {
+            return 10 + (c - 'a');
+        }
+        return 37 + (c % 27);
+    }
+
+    private static final class Postings {
+        private int[] docs = new int[4];
+        private int size;
+
+        private void add(int doc) {
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+            }
+            int position = size == 0 || docs[size - 1] < doc ? size : -Arrays.binarySearch(docs, 0, size, doc) - 1;
+            if (position < 0) {
+                return;
+            }
+            System.arraycopy(docs, position, docs, position + 1, size - position);
+            docs[position] = doc;
+            size++;
+        }
+
+        private void remove(int doc) {
+            int position = Arrays.binarySearch(docs, 0, size, doc);
+            if (position < 0) {
+                return;
+            }
+            System.arraycopy(docs, position + 1, docs, position, size - position - 1);
+            size--;
+            if (size > 8 && size < docs.length / 4) {
+                docs = Arrays.copyOf(docs, docs.length / 2);
+            }
+        }
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static final class Match {
+        private final long key;
+        private final double score;
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static final class Stats {
+        private final int documents;
+        private final int trigrams;
+        private final long postingEntries;
+        private final long estimatedBytes;
+    }
+}
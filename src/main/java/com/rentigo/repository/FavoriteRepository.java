@@ -3,16 +3,41 @@ package com.rentigo.repository;
 import com.rentigo.entity.Favorite;
 import com.rentigo.entity.Place;
 import com.rentigo.entity.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface FavoriteRepository extends JpaRepository<Favorite, Long> {
     List<Favorite> findByUser(User user);
 
+    @Query("SELECT f.place FROM Favorite f WHERE f.user = :user ORDER BY f.createdAt DESC")
+    List<Place> findPlacesByUser(@Param("user") User user);
+
+    @Query("SELECT f.place.id FROM Favorite f WHERE f.user = :user AND f.place.id IN :placeIds")
+    List<Long> findPlaceIdsByUserAndPlaceIds(@Param("user") User user, @Param("placeIds") Collection<Long> placeIds);
+
+    @Query("SELECT f.place.id FROM Favorite f WHERE f.user.id = :userId ORDER BY f.createdAt DESC")
+    List<Long> findRecentPlaceIdsByUserId(@Param("userId") Long userId, Pageable pageable);
+
+    @Query("SELECT f.user.id, f.place.id FROM Favorite f ORDER BY f.createdAt DESC")
+    List<Object[]> findUserPlacePairs();
+
+    @Query("SELECT f.user.id, f.place.id FROM Favorite f WHERE f.user.id IN " +
+           "(SELECT s.user.id FROM Favorite s WHERE s.place.id IN :placeIds) ORDER BY f.createdAt DESC")
+    List<Object[]> findUserPlacePairsOfUsersSaving(@Param("placeIds") Collection<Long> placeIds);
+
+    @Query("SELECT f.user.id, f.place.id FROM Favorite f WHERE f.user.id IN :userIds AND f.place.id IN :placeIds")
+    List<Object[]> findUserPlacePairs(@Param("userIds") Collection<Long> userIds, @Param("placeIds") Collection<Long> placeIds);
+
     boolean existsByUserAndPlace(User user, Place place);
 
+    boolean existsByUserAndPlaceId(User user, Long placeId);
+
     void deleteByUserAndPlace(User user, Place place);
 
 }
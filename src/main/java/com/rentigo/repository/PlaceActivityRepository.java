@@ -0,0 +1,30 @@
+package com.rentigo.repository;
+
+import com.rentigo.entity.PlaceActivity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface PlaceActivityRepository extends JpaRepository<PlaceActivity, PlaceActivity.Key> {
+    // Rows are (place id, city id, score); each hourly bucket loses half its weight every halfLifeHours.
+    @Query(value = "SELECT a.place_id, p.city_id, " +
+                   "SUM((a.views * :viewWeight + a.favorites * :favoriteWeight + a.reservations * :reservationWeight) * " +
+                   "POWER(0.5, EXTRACT(EPOCH FROM (now() - a.bucket)) / 3600.0 / :halfLifeHours)) AS score " +
+                   "FROM place_activity a JOIN places p ON p.id = a.place_id AND p.status = 'ACTIVE' " +
+                   "WHERE a.bucket >= :since GROUP BY a.place_id, p.city_id",
+           nativeQuery = true)
+    List<Object[]> findDecayedScores(@Param("since") LocalDateTime since,
+                                     @Param("viewWeight") double viewWeight,
+                                     @Param("favoriteWeight") double favoriteWeight,
+                                     @Param("reservationWeight") double reservationWeight,
+                                     @Param("halfLifeHours") double halfLifeHours);
+
+    @Modifying
+    @Query("DELETE FROM PlaceActivity a WHERE a.bucket < :before")
+    int deleteOlderThan(@Param("before") LocalDateTime before);
+}
@@ -0,0 +1,54 @@
+package com.rentigo.repository;
+
+import com.rentigo.entity.PlaceCard;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface PlaceCardRepository extends JpaRepository<PlaceCard, Long> {
+    String CARD_SELECT = "SELECT p.id AS place_id, p.name AS name, p.city_id AS city_id, c.name AS city_name, " +
+        "p.district AS district, p.latitude AS latitude, p.longitude AS longitude, p.type AS type, " +
+        "p.price_per_night AS price_per_night, p.cleaning_fee AS cleaning_fee, p.max_guests AS max_guests, " +
+        "p.bedrooms AS bedrooms, p.rating AS rating, p.review_count AS review_count, p.status AS status, " +
+        "(SELECT i.url FROM place_images i WHERE i.place_id = p.id ORDER BY i.is_main DESC, i.id LIMIT 1) AS main_image_url, " +
+        "p.owner_id AS owner_id, (SELECT COUNT(*) FROM reservations r WHERE r.place_id = p.id) AS reservation_count, " +
+        "now() AS updated_at " +
+        "FROM places p JOIN cities c ON c.id = p.city_id ";
+
+    String UPSERT_SELECT = "INSERT INTO place_cards (place_id, name, city_id, city_name, district, latitude, longitude, " +
+        "type, price_per_night, cleaning_fee, max_guests, bedrooms, rating, review_count, status, main_image_url, " +
+        "owner_id, reservation_count, updated_at) " + CARD_SELECT;
+
+    String ON_CONFLICT = " ON CONFLICT (place_id) DO UPDATE SET name = EXCLUDED.name, city_id = EXCLUDED.city_id, " +
+        "city_name = EXCLUDED.city_name, district = EXCLUDED.district, latitude = EXCLUDED.latitude, " +
+        "longitude = EXCLUDED.longitude, type = EXCLUDED.type, price_per_night = EXCLUDED.price_per_night, " +
+        "cleaning_fee = EXCLUDED.cleaning_fee, max_guests = EXCLUDED.max_guests, bedrooms = EXCLUDED.bedrooms, " +
+        "rating = EXCLUDED.rating, review_count = EXCLUDED.review_count, status = EXCLUDED.status, " +
+        "main_image_url = EXCLUDED.main_image_url, owner_id = EXCLUDED.owner_id, " +
+        "reservation_count = EXCLUDED.reservation_count, updated_at = EXCLUDED.updated_at";
+
+    // Cards computed from the live tables without storing them, for places whose card has not been written yet.
+    @Query(value = CARD_SELECT + "WHERE p.id IN (:placeIds)", nativeQuery = true)
+    List<PlaceCard> computeByPlaceIds(@Param("placeIds") Collection<Long> placeIds);
+
+    @Modifying
+    @Query(value = UPSERT_SELECT + "WHERE p.id IN (:placeIds)" + ON_CONFLICT, nativeQuery = true)
+    int refresh(@Param("placeIds") Collection<Long> placeIds);
+
+    @Modifying
+    @Query(value = UPSERT_SELECT + ON_CONFLICT, nativeQuery = true)
+    int refreshAll();
+
+    @Modifying
+    @Query(value = "DELETE FROM place_cards pc WHERE NOT EXISTS (SELECT 1 FROM places p WHERE p.id = pc.place_id)", nativeQuery = true)
+    int deleteOrphans();
+
+    @Modifying
+    @Query("DELETE FROM PlaceCard c WHERE c.placeId = :placeId")
+    void deleteByPlaceId(@Param("placeId") Long placeId);
+}
@@ -0,0 +1,90 @@
+package com.rentigo.repository;
+
+import com.rentigo.entity.Place;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.data.domain.Sort;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Objects;
+import java.util.Optional;
+
+@Getter
+@AllArgsConstructor
+public class PlaceCursor {
+    private static final String SEPARATOR = "|";
+
+    private final SortKey sortKey;
+    private final Sort.Direction direction;
+    private final String key;
+    private final Long id;
+
+    public static PlaceCursor first(SortKey sortKey, Sort.Direction direction) {
+        return new PlaceCursor(sortKey, direction, null, null);
+    }
+
+    public static PlaceCursor after(Place place, SortKey sortKey, Sort.Direction direction) {
+        return new PlaceCursor(sortKey, direction, sortKey.keyOf(place), place.getId());
+    }
+
+    public static PlaceCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\" + SEPARATOR, -1);
+            SortKey sortKey = SortKey.of(parts[0]).orElseThrow();
+            sortKey.validate(parts[2]);
+            return new PlaceCursor(sortKey, Sort.Direction.fromString(parts[1]), parts[2], Long.parseLong(parts[3]));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Malformed cursor: " + cursor, e);
+        }
+    }
+
+    public boolean isFirst() {
+        return key == null;
+    }
+
+    public String encode() {
+        String raw = String.join(SEPARATOR, sortKey.getProperty(), direction.name(), key, String.valueOf(id));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public enum SortKey {
+        CREATED_AT("createdAt", "created_at", "timestamp"),
+        PRICE_PER_NIGHT("pricePerNight", "price_per_night", "numeric"),
+        RATING("rating", "rating", "numeric");
+
+        private final String property;
+        private final String column;
+        private final String sqlType;
+
+        public static Optional<SortKey> of(String property) {
+            return Arrays.stream(values())
+                .filter(sortKey -> sortKey.property.equals(property))
+                .findFirst();
+        }
+
+        private String keyOf(Place place) {
+            switch (this) {
+                case CREATED_AT:
+                    return place.getCreatedAt().toString();
+                case PRICE_PER_NIGHT:
+                    return place.getPricePerNight().toPlainString();
+                default:
+                    return Objects.requireNonNullElse(place.getRating(), BigDecimal.ZERO).toPlainString();
+            }
+        }
+
+        private void validate(String key) {
+            if (this == CREATED_AT) {
+                LocalDateTime.parse(key);
+            } else {
+                new BigDecimal(key);
+            }
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.rentigo.repository;
+
+import com.rentigo.entity.PlaceType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Set;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PlaceFilter {
+    private Long cityId;
+    private int minGuests;
+    private LocalDate checkIn;
+    private LocalDate checkOut;
+    private String tsquery;
+    private PlaceType type;
+    private BigDecimal minPrice;
+    private BigDecimal maxPrice;
+    private Integer minBedrooms;
+    private Integer minBathrooms;
+    private BigDecimal minRating;
+    private Set<Long> amenityIds;
+}
@@ -0,0 +1,24 @@
+package com.rentigo.repository;
+
+import com.rentigo.entity.PlaceNeighbor;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface PlaceNeighborRepository extends JpaRepository<PlaceNeighbor, PlaceNeighbor.Key> {
+    @Query("SELECT n.neighborId FROM PlaceNeighbor n WHERE n.placeId = :placeId ORDER BY n.ordinal")
+    List<Long> findNeighborIds(@Param("placeId") Long placeId, Pageable pageable);
+
+    @Query("SELECT DISTINCT n.placeId FROM PlaceNeighbor n WHERE n.neighborId IN :placeIds")
+    List<Long> findPlaceIdsWithNeighbors(@Param("placeIds") Collection<Long> placeIds);
+
+    @Modifying
+    @Query("DELETE FROM PlaceNeighbor n WHERE n.placeId IN :placeIds")
+    int deleteByPlaceIds(@Param("placeIds") Collection<Long> placeIds);
+}
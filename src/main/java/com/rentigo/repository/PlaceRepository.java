@@ -10,14 +10,29 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
-public interface PlaceRepository extends JpaRepository<Place, Long> {
+public interface PlaceRepository extends JpaRepository<Place, Long>, PlaceRepositoryCustom {
     List<Place> findByOwner(User owner);
 
+    @Query("SELECT p FROM Place p JOIN FETCH p.city WHERE p.status = :status")
+    List<Place> findAllWithCityByStatus(@Param("status") PlaceStatus status);
+
     Page<Place> findByStatus(PlaceStatus status, Pageable pageable);
 
+    @Query("SELECT p.id, p.city.id, p.maxGuests FROM Place p WHERE p.status = :status")
+    List<Object[]> findAvailabilityRowsByStatus(@Param("status") PlaceStatus status);
+
+    @Query("SELECT p.id, p.type, p.city.id, p.pricePerNight, p.bedrooms, p.amenityMask, p.rating FROM Place p WHERE p.status = :status")
+    List<Object[]> findSimilarityRowsByStatus(@Param("status") PlaceStatus status);
+
+    @Query("SELECT p.id, p.type, p.city.id, p.pricePerNight, p.bedrooms, p.amenityMask, p.rating FROM Place p " +
+           "WHERE p.status = :status AND p.id IN :ids")
+    List<Object[]> findSimilarityRowsByStatusAndIds(@Param("status") PlaceStatus status, @Param("ids") Collection<Long> ids);
+
     @Query("SELECT p FROM Place p WHERE p.status = :status AND p.city.id = :cityId")
     Page<Place> findByCityIdAndStatus(@Param("cityId") Long cityId, @Param("status") PlaceStatus status, Pageable pageable);
 
@@ -29,12 +44,50 @@ public interface PlaceRepository extends JpaRepository<Place, Long> {
         Pageable pageable
     );
 
+    @Query("SELECT p FROM Place p WHERE p.status = :status AND p.maxGuests >= :guests AND p.city.id = :cityId AND " +
+           "NOT EXISTS (SELECT r.id FROM Reservation r WHERE r.place = p AND " +
+           "r.status IN ('PENDING', 'CONFIRMED') AND r.checkIn <= :checkOut AND r.checkOut >= :checkIn)")
+    Page<Place> findAvailablePlacesForDates(
+        @Param("cityId") Long cityId,
+        @Param("guests") Integer guests,
+        @Param("checkIn") LocalDate checkIn,
+        @Param("checkOut") LocalDate checkOut,
+        @Param("status") PlaceStatus status,
+        Pageable pageable
+    );
+
+    @Query("SELECT p FROM Place p WHERE p.status = :status AND p.maxGuests >= :guests AND " +
+           "NOT EXISTS (SELECT r.id FROM Reservation r WHERE r.place = p AND " +
+           "r.status IN ('PENDING', 'CONFIRMED') AND r.checkIn <= :checkOut AND r.checkOut >= :checkIn)")
+    Page<Place> findAllAvailablePlacesForDates(
+        @Param("guests") Integer guests,
+        @Param("checkIn") LocalDate checkIn,
+        @Param("checkOut") LocalDate checkOut,
+        @Param("status") PlaceStatus status,
+        Pageable pageable
+    );
+
     @Query("SELECT p FROM Place p WHERE p.status = 'ACTIVE' AND " +
            "(LOWER(p.city.name) LIKE LOWER(CONCAT('%', :query, '%')) OR " +
            "LOWER(p.name) LIKE LOWER(CONCAT('%', :query, '%')) OR " +
            "LOWER(p.address) LIKE LOWER(CONCAT('%', :query, '%')))")
     Page<Place> searchPlaces(@Param("query") String query, Pageable pageable);
 
+    @Query(value = "SELECT p.* FROM places p, to_tsquery('polish_unaccent', :tsquery) q " +
+                   "WHERE p.status = 'ACTIVE' AND p.search_vector @@ q " +
+                   "ORDER BY ts_rank(p.search_vector, q) DESC, p.id DESC",
+           countQuery = "SELECT COUNT(*) FROM places p " +
+                        "WHERE p.status = 'ACTIVE' AND p.search_vector @@ to_tsquery('polish_unaccent', :tsquery)",
+           nativeQuery = true)
+    Page<Place> searchPlacesByRelevance(@Param("tsquery") String tsquery, Pageable pageable);
+
+    @Query(value = "SELECT p.* FROM places p " +
+                   "WHERE p.status = 'ACTIVE' AND p.search_vector @@ to_tsquery('polish_unaccent', :tsquery)",
+           countQuery = "SELECT COUNT(*) FROM places p " +
+                        "WHERE p.status = 'ACTIVE' AND p.search_vector @@ to_tsquery('polish_unaccent', :tsquery)",
+           nativeQuery = true)
+    Page<Place> searchPlacesFullText(@Param("tsquery") String tsquery, Pageable pageable);
+
     @Query("SELECT COUNT(p) FROM Place p WHERE p.owner = :owner AND p.status = :status")
     long countByOwnerAndStatus(@Param("owner") User owner, @Param("status") PlaceStatus status);
 
@@ -0,0 +1,23 @@
+package com.rentigo.repository;
+
+import com.rentigo.entity.Place;
+import com.rentigo.util.GeoHash;
+import org.springframework.data.domain.Sort;
+import java.math.BigDecimal;
+import java.util.List;
+
+public interface PlaceRepositoryCustom {
+    List<Place> findActivePlacesAfter(PlaceFilter filter, PlaceCursor cursor, int limit);
+
+    List<Place> findActivePlaces(PlaceFilter filter, PlaceCursor.SortKey sortKey, Sort.Direction direction, long offset, int limit);
+
+    List<Long> findActivePlaceIdsByStayTotal(PlaceFilter filter, long nights, Sort.Direction direction, long offset, int limit);
+
+    long countActivePlaces(PlaceFilter filter);
+
+    List<Object[]> countFacets(PlaceFilter filter, List<BigDecimal> priceBounds);
+
+    List<Place> findActivePlacesNear(GeoHash.Box box, List<String> cells, double latitude, double longitude, double radiusKm, int limit);
+
+    List<Object[]> clusterActivePlaces(GeoHash.Box box, List<String> cells, int precision);
+}
@@ -0,0 +1,255 @@
+package com.rentigo.repository;
+
+import com.rentigo.entity.Place;
+import com.rentigo.util.AmenityMask;
+import com.rentigo.util.GeoHash;
+import com.rentigo.util.StayPrice;
+import org.springframework.data.domain.Sort;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.Query;
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+public class PlaceRepositoryImpl implements PlaceRepositoryCustom {
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // Row-value comparison on (key, id) lets PostgreSQL seek straight into the (status, key, id) index.
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<Place> findActivePlacesAfter(PlaceFilter filter, PlaceCursor cursor, int limit) {
+        PlaceCursor.SortKey sortKey = cursor.getSortKey();
+        boolean ascending = cursor.getDirection().isAscending();
+        Map<String, Object> params = new HashMap<>();
+
+        StringBuilder sql = new StringBuilder("SELECT p.* FROM places p WHERE ");
+        appendFilter(sql, filter, params);
+        if (!cursor.isFirst()) {
+            sql.append(" AND (p.").append(sortKey.getColumn()).append(", p.id) ")
+                .append(ascending ? ">" : "<")
+                .append(" (CAST(:key AS ").append(sortKey.getSqlType()).append("), :id)");
+            params.put("key", cursor.getKey());
+            params.put("id", cursor.getId());
+        }
+        appendOrder(sql, sortKey, cursor.getDirection());
+        sql.append(" LIMIT :limit");
+        params.put("limit", limit);
+
+        Query query = entityManager.createNativeQuery(sql.toString(), Place.class);
+        params.forEach(query::setParameter);
+        return query.getResultList();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<Place> findActivePlaces(PlaceFilter filter, PlaceCursor.SortKey sortKey, Sort.Direction direction, long offset, int limit) {
+        Map<String, Object> params = new HashMap<>();
+        StringBuilder sql = new StringBuilder("SELECT p.* FROM places p WHERE ");
+        appendFilter(sql, filter, params);
+        appendOrder(sql, sortKey, direction);
+        sql.append(" LIMIT :limit OFFSET :offset");
+        params.put("limit", limit);
+        params.put("offset", offset);
+
+        Query query = entityManager.createNativeQuery(sql.toString(), Place.class);
+        params.forEach(query::setParameter);
+        return query.getResultList();
+    }
+
+    // Same rules as StayPrice; PostgreSQL ROUND on numeric rounds half away from zero, i.e. HALF_UP for prices.
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<Long> findActivePlaceIdsByStayTotal(PlaceFilter filter, long nights, Sort.Direction direction, long offset, int limit) {
+        Map<String, Object> params = new HashMap<>();
+        String order = direction.isAscending() ? " ASC" : " DESC";
+        StringBuilder sql = new StringBuilder("SELECT p.id FROM places p WHERE ");
+        appendFilter(sql, filter, params);
+        sql.append(" ORDER BY p.price_per_night * :nights + COALESCE(p.cleaning_fee, 0)")
+            .append(" + ROUND(p.price_per_night * :nights * :serviceFeeRate, 2)").append(order)
+            .append(", p.id").append(order)
+            .append(" LIMIT :limit OFFSET :offset");
+        params.put("nights", nights);
+        params.put("serviceFeeRate", StayPrice.SERVICE_FEE_RATE);
+        params.put("limit", limit);
+        params.put("offset", offset);
+
+        Query query = entityManager.createNativeQuery(sql.toString());
+        params.forEach(query::setParameter);
+        return ((List<Number>) query.getResultList()).stream()
+            .map(Number::longValue)
+            .collect(Collectors.toList());
+    }
+
+    @Override
+    public long countActivePlaces(PlaceFilter filter) {
+        Map<String, Object> params = new HashMap<>();
+        StringBuilder sql = new StringBuilder("SELECT COUNT(*) FROM places p WHERE ");
+        appendFilter(sql, filter, params);
+
+        Query query = entityManager.createNativeQuery(sql.toString());
+        params.forEach(query::setParameter);
+        return ((Number) query.getSingleResult()).longValue();
+    }
+
+    // One statement: the CTE is scanned once, GROUPING SETS counts type/bedrooms/price and the amenity branches
+    // test mask bits, falling back to the join table for ids past the mask.
+    // Rows are (facet, value, count).
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<Object[]> countFacets(PlaceFilter filter, List<BigDecimal> priceBounds) {
+        Map<String, Object> params = new HashMap<>();
+        StringBuilder bucket = new StringBuilder("CASE");
+        for (int i = 0; i < priceBounds.size(); i++) {
+            bucket.append(" WHEN p.price_per_night < :priceBound").append(i).append(" THEN ").append(i);
+            params.put("priceBound" + i, priceBounds.get(i));
+        }
+        bucket.append(" ELSE ").append(priceBounds.size()).append(" END");
+
+        StringBuilder sql = new StringBuilder("WITH matched AS MATERIALIZED (SELECT p.id, p.type, p.bedrooms, p.amenity_mask, ")
+            .append(bucket).append(" AS price_bucket FROM places p WHERE ");
+        appendFilter(sql, filter, params);
+        sql.append(") ")
+            .append("SELECT CASE WHEN GROUPING(type) = 0 THEN 'type' WHEN GROUPING(bedrooms) = 0 THEN 'bedrooms' ELSE 'price' END, ")
+            .append("COALESCE(type, CAST(bedrooms AS varchar), CAST(price_bucket AS varchar)), COUNT(*) ")
+            .append("FROM matched GROUP BY GROUPING SETS ((type), (bedrooms), (price_bucket)) ")
+            .append("UNION ALL ")
+            .append("SELECT 'amenity', CAST(a.id AS varchar), COUNT(*) FROM matched m JOIN amenities a ")
+            .append("ON a.id BETWEEN 1 AND ").append(AmenityMask.MAX_MASKED_ID)
+            .append(" AND (m.amenity_mask & (CAST(1 AS bigint) << CAST(a.id - 1 AS integer))) <> 0 GROUP BY a.id ")
+            .append("UNION ALL ")
+            .append("SELECT 'amenity', CAST(pa.amenity_id AS varchar), COUNT(*) FROM matched m ")
+            .append("JOIN place_amenities pa ON pa.place_id = m.id AND pa.amenity_id > ").append(AmenityMask.MAX_MASKED_ID)
+            .append(" GROUP BY pa.amenity_id");
+
+        Query query = entityManager.createNativeQuery(sql.toString());
+        params.forEach(query::setParameter);
+        return query.getResultList();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<Place> findActivePlacesNear(GeoHash.Box box, List<String> cells, double latitude, double longitude, double radiusKm, int limit) {
+        Map<String, Object> params = new HashMap<>();
+        String distance = "6371 * 2 * ASIN(SQRT(POWER(SIN(RADIANS(p.latitude - :lat) / 2), 2) + " +
+            "COS(RADIANS(:lat)) * COS(RADIANS(p.latitude)) * POWER(SIN(RADIANS(p.longitude - :lng) / 2), 2)))";
+        StringBuilder sql = new StringBuilder("SELECT p.* FROM places p WHERE p.status = 'ACTIVE'");
+        appendArea(sql, box, cells, params);
+        sql.append(" AND ").append(distance).append(" <= :radius")
+            .append(" ORDER BY ").append(distance).append(", p.id LIMIT :limit");
+        params.put("lat", latitude);
+        params.put("lng", longitude);
+        params.put("radius", radiusKm);
+        params.put("limit", limit);
+
+        Query query = entityManager.createNativeQuery(sql.toString(), Place.class);
+        params.forEach(query::setParameter);
+        return query.getResultList();
+    }
+
+    // Rows are (cell, count, avg latitude, avg longitude, min place id).
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<Object[]> clusterActivePlaces(GeoHash.Box box, List<String> cells, int precision) {
+        Map<String, Object> params = new HashMap<>();
+        StringBuilder sql = new StringBuilder("SELECT LEFT(p.geohash, :precision) AS cell, COUNT(*), ")
+            .append("AVG(p.latitude), AVG(p.longitude), MIN(p.id) FROM places p WHERE p.status = 'ACTIVE'");
+        appendArea(sql, box, cells, params);
+        sql.append(" GROUP BY cell");
+        params.put("precision", precision);
+
+        Query query = entityManager.createNativeQuery(sql.toString());
+        params.forEach(query::setParameter);
+        return query.getResultList();
+    }
+
+    // Prefix LIKEs hit the varchar_pattern_ops index on geohash; the coordinate range trims cell overhang.
+    private void appendArea(StringBuilder sql, GeoHash.Box box, List<String> cells, Map<String, Object> params) {
+        sql.append(" AND (");
+        for (int i = 0; i < cells.size(); i++) {
+            sql.append(i > 0 ? " OR " : "").append("p.geohash LIKE :cell").append(i);
+            params.put("cell" + i, cells.get(i) + "%");
+        }
+        sql.append(") AND p.latitude BETWEEN :minLat AND :maxLat AND p.longitude BETWEEN :minLng AND :maxLng");
+        params.put("minLat", box.getMinLat());
+        params.put("maxLat", box.getMaxLat());
+        params.put("minLng", box.getMinLng());
+        params.put("maxLng", box.getMaxLng());
+    }
+
+    private void appendFilter(StringBuilder sql, PlaceFilter filter, Map<String, Object> params) {
+        sql.append("p.status = 'ACTIVE'");
+        if (filter.getCityId() != null) {
+            sql.append(" AND p.city_id = :cityId");
+            params.put("cityId", filter.getCityId());
+        }
+        if (filter.getMinGuests() > 0) {
+            sql.append(" AND p.max_guests >= :guests");
+            params.put("guests", filter.getMinGuests());
+        }
+        if (filter.getType() != null) {
+            sql.append(" AND p.type = :type");
+            params.put("type", filter.getType().name());
+        }
+        if (filter.getMinPrice() != null) {
+            sql.append(" AND p.price_per_night >= :minPrice");
+            params.put("minPrice", filter.getMinPrice());
+        }
+        if (filter.getMaxPrice() != null) {
+            sql.append(" AND p.price_per_night <= :maxPrice");
+            params.put("maxPrice", filter.getMaxPrice());
+        }
+        if (filter.getMinBedrooms() != null) {
+            sql.append(" AND p.bedrooms >= :minBedrooms");
+            params.put("minBedrooms", filter.getMinBedrooms());
+        }
+        if (filter.getMinBathrooms() != null) {
+            sql.append(" AND p.bathrooms >= :minBathrooms");
+            params.put("minBathrooms", filter.getMinBathrooms());
+        }
+        if (filter.getMinRating() != null) {
+            sql.append(" AND p.rating >= :minRating");
+            params.put("minRating", filter.getMinRating());
+        }
+        if (filter.getAmenityIds() != null && !filter.getAmenityIds().isEmpty()) {
+            appendAmenities(sql, filter.getAmenityIds(), params);
+        }
+        if (filter.getTsquery() != null) {
+            sql.append(" AND p.search_vector @@ to_tsquery('polish_unaccent', :tsquery)");
+            params.put("tsquery", filter.getTsquery());
+        }
+        if (filter.getCheckIn() != null && filter.getCheckOut() != null) {
+            sql.append(" AND NOT EXISTS (SELECT 1 FROM reservations r WHERE r.place_id = p.id")
+                .append(" AND r.status IN ('PENDING', 'CONFIRMED')")
+                .append(" AND r.check_in <= :checkOut AND r.check_out >= :checkIn)");
+            params.put("checkIn", filter.getCheckIn());
+            params.put("checkOut", filter.getCheckOut());
+        }
+    }
+
+    // Masked amenities cost one bitwise test on the row; only ids past the mask still go through the join table.
+    private void appendAmenities(StringBuilder sql, Set<Long> amenityIds, Map<String, Object> params) {
+        long mask = AmenityMask.ofIds(amenityIds);
+        if (mask != 0) {
+            sql.append(" AND (p.amenity_mask & :amenityMask) = :amenityMask");
+            params.put("amenityMask", mask);
+        }
+        List<Long> overflow = AmenityMask.overflowIds(amenityIds);
+        if (!overflow.isEmpty()) {
+            sql.append(" AND p.id IN (SELECT pa.place_id FROM place_amenities pa WHERE pa.amenity_id IN (:amenityIds)")
+                .append(" GROUP BY pa.place_id HAVING COUNT(*) = :amenityCount)");
+            params.put("amenityIds", overflow);
+            params.put("amenityCount", overflow.size());
+        }
+    }
+
+    private void appendOrder(StringBuilder sql, PlaceCursor.SortKey sortKey, Sort.Direction direction) {
+        String order = direction.isAscending() ? " ASC" : " DESC";
+        sql.append(" ORDER BY p.").append(sortKey.getColumn()).append(order)
+            .append(", p.id").append(order);
+    }
+}
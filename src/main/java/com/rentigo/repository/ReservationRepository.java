@@ -4,20 +4,31 @@ import com.rentigo.entity.Place;
 import com.rentigo.entity.Reservation;
 import com.rentigo.entity.ReservationStatus;
 import com.rentigo.entity.User;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface ReservationRepository extends JpaRepository<Reservation, Long> {
     List<Reservation> findByUser(User user);
 
+    @EntityGraph(attributePaths = "user")
+    Page<Reservation> findByUser(User user, Pageable pageable);
+
     List<Reservation> findByUserAndStatus(User user, ReservationStatus status);
 
+    @EntityGraph(attributePaths = "user")
+    Page<Reservation> findByUserAndStatus(User user, ReservationStatus status, Pageable pageable);
+
     List<Reservation> findByPlace(Place place);
 
     long countByPlace(Place place);
@@ -27,9 +38,19 @@ public interface ReservationRepository extends JpaRepository<Reservation, Long>
     @Query("SELECT r FROM Reservation r WHERE r.user = :user AND r.checkIn >= CURRENT_DATE AND r.status IN ('PENDING', 'CONFIRMED')")
     List<Reservation> findUpcomingReservations(@Param("user") User user);
 
+    @EntityGraph(attributePaths = "user")
+    @Query(value = "SELECT r FROM Reservation r WHERE r.user = :user AND r.checkIn >= CURRENT_DATE AND r.status IN ('PENDING', 'CONFIRMED')",
+           countQuery = "SELECT COUNT(r) FROM Reservation r WHERE r.user = :user AND r.checkIn >= CURRENT_DATE AND r.status IN ('PENDING', 'CONFIRMED')")
+    Page<Reservation> findUpcomingReservations(@Param("user") User user, Pageable pageable);
+
     @Query("SELECT r FROM Reservation r WHERE r.user = :user AND r.checkOut < CURRENT_DATE")
     List<Reservation> findPastReservations(@Param("user") User user);
 
+    @EntityGraph(attributePaths = "user")
+    @Query(value = "SELECT r FROM Reservation r WHERE r.user = :user AND r.checkOut < CURRENT_DATE",
+           countQuery = "SELECT COUNT(r) FROM Reservation r WHERE r.user = :user AND r.checkOut < CURRENT_DATE")
+    Page<Reservation> findPastReservations(@Param("user") User user, Pageable pageable);
+
     @Query("SELECT r FROM Reservation r WHERE r.place = :place AND " +
            "((r.checkIn <= :checkOut AND r.checkOut >= :checkIn)) AND " +
            "r.status IN ('PENDING', 'CONFIRMED')")
@@ -39,6 +60,31 @@ public interface ReservationRepository extends JpaRepository<Reservation, Long>
         @Param("checkOut") LocalDate checkOut
     );
 
+    @Query("SELECT r.status FROM Reservation r WHERE r.id = :id")
+    Optional<ReservationStatus> findStatusById(@Param("id") Long id);
+
+    @Modifying
+    @Query("UPDATE Reservation r SET r.status = :to WHERE r.id = :id AND r.status = :from")
+    int updateStatus(@Param("id") Long id, @Param("from") ReservationStatus from, @Param("to") ReservationStatus to);
+
+    @Query("SELECT COALESCE(MAX(r.id), 0) FROM Reservation r")
+    long findMaxId();
+
+    @Query("SELECT r.id, r.place.id, r.checkIn, r.checkOut FROM Reservation r WHERE r.id BETWEEN :fromId AND :toId AND " +
+           "r.checkOut >= :since AND r.status IN ('PENDING', 'CONFIRMED')")
+    List<Object[]> findActiveStaysInIdRange(
+        @Param("fromId") long fromId,
+        @Param("toId") long toId,
+        @Param("since") LocalDate since
+    );
+
+    @Query("SELECT r.id, r.checkIn, r.checkOut FROM Reservation r WHERE r.place.id = :placeId AND " +
+           "r.status IN ('PENDING', 'CONFIRMED')")
+    List<Object[]> findActiveStaysByPlaceId(@Param("placeId") Long placeId);
+
+    @Query("SELECT r.id, r.createdAt FROM Reservation r WHERE r.status = 'PENDING'")
+    List<Object[]> findPendingHolds();
+
     @Query("SELECT COUNT(r) FROM Reservation r WHERE r.place.owner = :owner AND r.createdAt >= :since")
     long countReservationsByOwnerSince(@Param("owner") User owner, @Param("since") java.time.LocalDateTime since);
 
@@ -47,4 +93,9 @@ public interface ReservationRepository extends JpaRepository<Reservation, Long>
 
     @Query("SELECT r FROM Reservation r WHERE r.place.owner = :owner ORDER BY r.createdAt DESC")
     List<Reservation> findByPlaceOwner(@Param("owner") User owner);
+
+    @EntityGraph(attributePaths = "user")
+    @Query(value = "SELECT r FROM Reservation r WHERE r.place.owner = :owner",
+           countQuery = "SELECT COUNT(r) FROM Reservation r WHERE r.place.owner = :owner")
+    Page<Reservation> findByPlaceOwner(@Param("owner") User owner, Pageable pageable);
 }
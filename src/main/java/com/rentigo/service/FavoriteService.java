@@ -4,24 +4,25 @@ import com.rentigo.dto.PlaceListDto;
 import com.rentigo.entity.Favorite;
 import com.rentigo.entity.Place;
 import com.rentigo.entity.User;
+import com.rentigo.event.FavoriteChangedEvent;
 import com.rentigo.repository.FavoriteRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import java.util.List;
-import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class FavoriteService {
     private final FavoriteRepository favoriteRepository;
     private final PlaceService placeService;
+    private final PlaceListAssembler placeListAssembler;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Transactional(readOnly = true)
     public List<PlaceListDto> getUserFavorites(User user) {
-        return favoriteRepository.findByUser(user).stream()
-            .map(f -> placeService.toListDto(f.getPlace(), user))
-            .collect(Collectors.toList());
+        return placeListAssembler.toList(favoriteRepository.findPlacesByUser(user), user);
     }
 
     public boolean isFavorite(User user, Long placeId) {
@@ -43,12 +44,14 @@ public class FavoriteService {
             .build();
 
         favoriteRepository.save(favorite);
+        eventPublisher.publishEvent(new FavoriteChangedEvent(user.getId(), placeId, FavoriteChangedEvent.Type.ADDED));
     }
 
     @Transactional
     public void removeFavorite(User user, Long placeId) {
         Place place = placeService.findById(placeId);
         favoriteRepository.deleteByUserAndPlace(user, place);
+        eventPublisher.publishEvent(new FavoriteChangedEvent(user.getId(), placeId, FavoriteChangedEvent.Type.REMOVED));
     }
 
     @Transactional
@@ -57,6 +60,7 @@ public class FavoriteService {
 
         if (favoriteRepository.existsByUserAndPlace(user, place)) {
             favoriteRepository.deleteByUserAndPlace(user, place);
+            eventPublisher.publishEvent(new FavoriteChangedEvent(user.getId(), placeId, FavoriteChangedEvent.Type.REMOVED));
             return false;
         } else {
             Favorite favorite = Favorite.builder()
@@ -64,6 +68,7 @@ public class FavoriteService {
                 .place(place)
                 .build();
             favoriteRepository.save(favorite);
+            eventPublisher.publishEvent(new FavoriteChangedEvent(user.getId(), placeId, FavoriteChangedEvent.Type.ADDED));
             return true;
         }
     }
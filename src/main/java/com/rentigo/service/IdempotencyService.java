@@ -0,0 +1,195 @@
+package com.rentigo.service;
+
+import com.rentigo.cache.WeightedLruCache;
+import com.rentigo.entity.IdempotencyKey;
+import com.rentigo.exception.BadRequestException;
+import com.rentigo.exception.ConflictException;
+import com.rentigo.repository.IdempotencyKeyRepository;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
+
+// The first request with a key claims its row and runs; duplicates on the same node wait on its future,
+// duplicates on other nodes poll the row. Responses below 500 are kept for the TTL; a 5xx or an exception
+// releases the key so the client can retry. While a request runs its claim is refreshed, so only a claim
+// whose node stopped heartbeating is treated as abandoned.
+@Service
+@Slf4j
+public class IdempotencyService {
+    private static final long WAIT_MILLIS = 30000;
+    private static final long POLL_MILLIS = 100;
+    private static final long ABANDONED_SECONDS = 120;
+    private static final long HEARTBEAT_MILLIS = 30000;
+
+    private final IdempotencyKeyRepository idempotencyKeyRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final WeightedLruCache<String, StoredResponse> recent;
+    private final Duration ttl;
+    private final Map<String, CompletableFuture<StoredResponse>> running = new ConcurrentHashMap<>();
+    private final Set<String> claimed = ConcurrentHashMap.newKeySet();
+
+    public IdempotencyService(IdempotencyKeyRepository idempotencyKeyRepository,
+                              JdbcTemplate jdbcTemplate,
+                              @Value("${idempotency.cache.max-bytes:4194304}") long maxBytes,
+                              @Value("${idempotency.ttl-hours:24}") long ttlHours) {
+        this.idempotencyKeyRepository = idempotencyKeyRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.recent = new WeightedLruCache<>(maxBytes, stored -> 160 + 2L * stored.body.length());
+        this.ttl = Duration.ofHours(ttlHours);
+    }
+
+    public StoredResponse execute(String key, String fingerprint, Callable<StoredResponse> request) throws Exception {
+        long deadline = System.currentTimeMillis() + WAIT_MILLIS;
+        while (true) {
+            long now = System.currentTimeMillis();
+            StoredResponse cached = recent.get(key, stored -> stored.createdAt > now - ttl.toMillis());
+            if (cached != null) {
+                return matching(cached, fingerprint);
+            }
+
+            CompletableFuture<StoredResponse> mine = new CompletableFuture<>();
+            CompletableFuture<StoredResponse> first = running.putIfAbsent(key, mine);
+            if (first != null) {
+                try {
+                    return matching(first.get(Math.max(deadline - now, 1), TimeUnit.MILLISECONDS), fingerprint);
+                } catch (TimeoutException e) {
+                    throw inProgress();
+                } catch (ExecutionException e) {
+                    continue;
+                }
+            }
+
+            try {
+                StoredResponse result = claimAndRun(key, fingerprint, request, deadline);
+                mine.complete(result);
+                return result;
+            } catch (Exception e) {
+                mine.completeExceptionally(e);
+                throw e;
+            } finally {
+                running.remove(key, mine);
+            }
+        }
+    }
+
+    @Scheduled(cron = "0 20 * * * *")
+    @Transactional
+    public void pruneExpired() {
+        int removed = idempotencyKeyRepository.deleteOlderThan(LocalDateTime.now().minus(ttl));
+        log.info("Pruned {} idempotency keys", removed);
+    }
+
+    @Scheduled(fixedDelay = HEARTBEAT_MILLIS)
+    public void refreshClaims() {
+        if (claimed.isEmpty()) {
+            return;
+        }
+        List<Object[]> keys = claimed.stream().map(key -> new Object[]{key}).collect(Collectors.toList());
+        jdbcTemplate.batchUpdate("UPDATE idempotency_keys SET created_at = now() WHERE id = ? AND response_status IS NULL", keys);
+    }
+
+    private StoredResponse claimAndRun(String key, String fingerprint, Callable<StoredResponse> request,
+                                       long deadline) throws Exception {
+        while (true) {
+            int claimed = jdbcTemplate.update("INSERT INTO idempotency_keys (id, fingerprint, created_at) " +
+                "VALUES (?, ?, now()) ON CONFLICT (id) DO NOTHING", key, fingerprint);
+            if (claimed == 1) {
+                return run(key, fingerprint, request);
+            }
+
+            Optional<IdempotencyKey> row = idempotencyKeyRepository.findById(key);
+            if (row.isEmpty()) {
+                continue;
+            }
+            IdempotencyKey existing = row.get();
+            LocalDateTime now = LocalDateTime.now();
+            LocalDateTime expiredBefore = now.minus(ttl);
+            LocalDateTime abandonedBefore = now.minusSeconds(ABANDONED_SECONDS);
+            if (existing.getCreatedAt().isBefore(expiredBefore) ||
+                (existing.getResponseStatus() == null && existing.getCreatedAt().isBefore(abandonedBefore))) {
+                jdbcTemplate.update("DELETE FROM idempotency_keys WHERE id = ? AND " +
+                    "(created_at < ? OR (response_status IS NULL AND created_at < ?))", key, expiredBefore, abandonedBefore);
+                continue;
+            }
+            if (existing.getResponseStatus() != null) {
+                StoredResponse stored = new StoredResponse(existing.getFingerprint(), existing.getResponseStatus(),
+                    existing.getContentType(), existing.getResponseBody() != null ? existing.getResponseBody() : "",
+                    existing.getCreatedAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+                recent.put(key, stored);
+                return matching(stored, fingerprint);
+            }
+            if (!existing.getFingerprint().equals(fingerprint)) {
+                throw mismatch();
+            }
+            if (System.currentTimeMillis() > deadline) {
+                throw inProgress();
+            }
+            Thread.sleep(POLL_MILLIS);
+        }
+    }
+
+    private StoredResponse run(String key, String fingerprint, Callable<StoredResponse> request) throws Exception {
+        StoredResponse result;
+        claimed.add(key);
+        try {
+            result = request.call();
+        } catch (Exception e) {
+            jdbcTemplate.update("DELETE FROM idempotency_keys WHERE id = ?", key);
+            throw e;
+        } finally {
+            claimed.remove(key);
+        }
+        if (result.status >= 500) {
+            jdbcTemplate.update("DELETE FROM idempotency_keys WHERE id = ?", key);
+        } else {
+            jdbcTemplate.update("UPDATE idempotency_keys SET response_status = ?, content_type = ?, response_body = ? " +
+                "WHERE id = ?", result.status, result.contentType, result.body, key);
+            recent.put(key, result);
+        }
+        return result;
+    }
+
+    private static StoredResponse matching(StoredResponse stored, String fingerprint) {
+        if (!stored.fingerprint.equals(fingerprint)) {
+            throw mismatch();
+        }
+        return stored;
+    }
+
+    private static BadRequestException mismatch() {
+        return new BadRequestException("Klucz idempotencji został już użyty dla innego żądania");
+    }
+
+    private static ConflictException inProgress() {
+        return new ConflictException("Żądanie z tym kluczem idempotencji jest nadal przetwarzane");
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class StoredResponse {
+        private final String fingerprint;
+        private final int status;
+        private final String contentType;
+        private final String body;
+        private final long createdAt;
+    }
+}
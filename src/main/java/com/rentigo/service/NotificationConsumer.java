@@ -24,6 +24,12 @@ public class NotificationConsumer {
             case "RESERVATION_CANCELLED":
                 handleReservationCancelled(message);
                 break;
+            case "RESERVATION_COMPLETED":
+                handleReservationCompleted(message);
+                break;
+            case "RESERVATION_EXPIRED":
+                handleReservationExpired(message);
+                break;
             case "CONTACT_MESSAGE":
                 handleContactMessage(message);
                 break;
@@ -50,6 +56,18 @@ public class NotificationConsumer {
             message.get("reservationNumber"));
     }
 
+    private void handleReservationCompleted(Map<String, Object> message) {
+        log.info("Reservation completed: {} - inviting guest {} to review",
+            message.get("reservationNumber"),
+            message.get("guestEmail"));
+    }
+
+    private void handleReservationExpired(Map<String, Object> message) {
+        log.info("Reservation expired unconfirmed: {} - notifying guest {}",
+            message.get("reservationNumber"),
+            message.get("guestEmail"));
+    }
+
     private void handleContactMessage(Map<String, Object> message) {
         log.info("New contact message from {}: {}",
             message.get("senderEmail"),
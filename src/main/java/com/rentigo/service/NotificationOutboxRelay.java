@@ -0,0 +1,94 @@
+package com.rentigo.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+// Drains notification_outbox in batches. Rows are claimed with SKIP LOCKED so nodes relay disjoint batches,
+// and deleted only after the broker confirms the whole batch; a failed batch is retried, so delivery is
+// at-least-once.
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class NotificationOutboxRelay {
+    private static final int BATCH_SIZE = 200;
+    private static final long CONFIRM_TIMEOUT_MILLIS = 5000;
+    private static final TypeReference<Map<String, Object>> MESSAGE = new TypeReference<>() {};
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final RabbitTemplate rabbitTemplate;
+    private final ObjectMapper objectMapper;
+
+    @Value("${rabbitmq.exchange.notifications}")
+    private String exchange;
+
+    @Value("${rabbitmq.routing.key.notifications}")
+    private String routingKey;
+
+    @Scheduled(fixedDelay = 500)
+    public void relay() {
+        try {
+            int sent;
+            do {
+                sent = relayBatch();
+            } while (sent == BATCH_SIZE);
+        } catch (Exception e) {
+            log.warn("Failed to relay notifications: {}", e.getMessage());
+        }
+    }
+
+    private int relayBatch() {
+        Integer sent = transactionTemplate.execute(status -> {
+            List<Outboxed> batch = jdbcTemplate.query(
+                "SELECT id, payload FROM notification_outbox ORDER BY id LIMIT ? FOR UPDATE SKIP LOCKED",
+                (rs, rowNum) -> new Outboxed(rs.getLong(1), rs.getString(2)), BATCH_SIZE);
+            if (batch.isEmpty()) {
+                return 0;
+            }
+
+            rabbitTemplate.invoke(operations -> {
+                for (Outboxed message : batch) {
+                    operations.convertAndSend(exchange, routingKey, fromJson(message.payload));
+                }
+                operations.waitForConfirmsOrDie(CONFIRM_TIMEOUT_MILLIS);
+                return null;
+            });
+
+            jdbcTemplate.update("DELETE FROM notification_outbox WHERE id = ANY(CAST(? AS bigint[]))",
+                batch.stream().map(message -> String.valueOf(message.id)).collect(Collectors.joining(",", "{", "}")));
+            log.debug("Relayed {} notifications", batch.size());
+            return batch.size();
+        });
+        return sent != null ? sent : 0;
+    }
+
+    private Map<String, Object> fromJson(String payload) {
+        try {
+            return objectMapper.readValue(payload, MESSAGE);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to read notification", e);
+        }
+    }
+
+    private static final class Outboxed {
+        private final long id;
+        private final String payload;
+
+        private Outboxed(long id, String payload) {
+            this.id = id;
+            this.payload = payload;
+        }
+    }
+}
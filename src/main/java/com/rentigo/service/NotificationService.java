@@ -1,63 +1,81 @@
 package com.rentigo.service;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.rentigo.entity.ContactMessage;
 import com.rentigo.entity.Reservation;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.amqp.rabbit.core.RabbitTemplate;
-import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
 
+// Notifications are written to notification_outbox in the caller's transaction, so a rollback drops them
+// and a slow broker never delays the caller; NotificationOutboxRelay publishes them.
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class NotificationService {
-    private final RabbitTemplate rabbitTemplate;
+    private static final int INSERT_BATCH_SIZE = 500;
 
-    @Value("${rabbitmq.exchange.notifications}")
-    private String exchange;
-
-    @Value("${rabbitmq.routing.key.notifications}")
-    private String routingKey;
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
 
     public void sendReservationNotification(Reservation reservation, String action) {
-        try {
-            Map<String, Object> message = new HashMap<>();
-            message.put("type", "RESERVATION_" + action);
-            message.put("reservationId", reservation.getId());
-            message.put("reservationNumber", reservation.getReservationNumber());
-            message.put("guestEmail", reservation.getUser().getEmail());
-            message.put("guestName", reservation.getUser().getFirstName() + " " + reservation.getUser().getLastName());
-            message.put("hostEmail", reservation.getPlace().getOwner().getEmail());
-            message.put("hostName", reservation.getPlace().getOwner().getFirstName());
-            message.put("placeName", reservation.getPlace().getName());
-            message.put("checkIn", reservation.getCheckIn().toString());
-            message.put("checkOut", reservation.getCheckOut().toString());
-            message.put("totalPrice", reservation.getTotalPrice().toString());
-
-            rabbitTemplate.convertAndSend(exchange, routingKey, message);
-            log.info("Reservation notification sent: {} - {}", action, reservation.getReservationNumber());
-        } catch (Exception e) {
-            log.warn("Failed to send reservation notification: {}", e.getMessage());
-        }
+        enqueue(List.of(reservationMessage(reservation, action)));
+        log.info("Reservation notification queued: {} - {}", action, reservation.getReservationNumber());
+    }
+
+    public void sendReservationNotifications(List<Reservation> reservations, String action) {
+        enqueue(reservations.stream()
+            .map(reservation -> reservationMessage(reservation, action))
+            .collect(Collectors.toList()));
+        log.info("Reservation notifications queued: {} x{}", action, reservations.size());
     }
 
     public void sendContactNotification(ContactMessage contactMessage) {
+        Map<String, Object> message = new HashMap<>();
+        message.put("type", "CONTACT_MESSAGE");
+        message.put("messageId", contactMessage.getId());
+        message.put("senderEmail", contactMessage.getEmail());
+        message.put("senderName", contactMessage.getFirstName() + " " + contactMessage.getLastName());
+        message.put("subject", contactMessage.getSubject());
+        message.put("content", contactMessage.getMessage());
+
+        enqueue(List.of(message));
+        log.info("Contact notification queued: {}", contactMessage.getId());
+    }
+
+    private void enqueue(List<Map<String, Object>> messages) {
+        List<String> payloads = messages.stream().map(this::toJson).collect(Collectors.toList());
+        jdbcTemplate.batchUpdate("INSERT INTO notification_outbox (payload, created_at) VALUES (?, now())",
+            payloads, INSERT_BATCH_SIZE, (statement, payload) -> statement.setString(1, payload));
+    }
+
+    private String toJson(Map<String, Object> message) {
         try {
-            Map<String, Object> message = new HashMap<>();
-            message.put("type", "CONTACT_MESSAGE");
-            message.put("messageId", contactMessage.getId());
-            message.put("senderEmail", contactMessage.getEmail());
-            message.put("senderName", contactMessage.getFirstName() + " " + contactMessage.getLastName());
-            message.put("subject", contactMessage.getSubject());
-            message.put("content", contactMessage.getMessage());
-
-            rabbitTemplate.convertAndSend(exchange, routingKey, message);
-            log.info("Contact notification sent: {}", contactMessage.getId());
-        } catch (Exception e) {
-            log.warn("Failed to send contact notification: {}", e.getMessage());
+            return objectMapper.writeValueAsString(message);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize notification", e);
         }
     }
+
+    private Map<String, Object> reservationMessage(Reservation reservation, String action) {
+        Map<String, Object> message = new HashMap<>();
+        message.put("type", "RESERVATION_" + action);
+        message.put("reservationId", reservation.getId());
+        message.put("reservationNumber", reservation.getReservationNumber());
+        message.put("guestEmail", reservation.getUser().getEmail());
+        message.put("guestName", reservation.getUser().getFirstName() + " " + reservation.getUser().getLastName());
+        message.put("hostEmail", reservation.getPlace().getOwner().getEmail());
+        message.put("hostName", reservation.getPlace().getOwner().getFirstName());
+        message.put("placeName", reservation.getPlace().getName());
+        message.put("checkIn", reservation.getCheckIn().toString());
+        message.put("checkOut", reservation.getCheckOut().toString());
+        message.put("totalPrice", reservation.getTotalPrice().toString());
+        return message;
+    }
 }
@@ -0,0 +1,149 @@
+package com.rentigo.service;
+
+import com.rentigo.entity.PlaceStatus;
+import com.rentigo.entity.ReservationStatus;
+import com.rentigo.event.PlaceChangedEvent;
+import com.rentigo.event.ReservationChangedEvent;
+import com.rentigo.index.AvailabilityIndex;
+import com.rentigo.repository.PlaceRepository;
+import com.rentigo.repository.ReservationRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PlaceAvailabilityService {
+    private static final int HORIZON_MONTHS = 18;
+    private static final long CHUNK_SIZE = 5000;
+
+    private final PlaceRepository placeRepository;
+    private final ReservationRepository reservationRepository;
+
+    private final Object updatesLock = new Object();
+    private volatile AvailabilityIndex index;
+    // Changes seen while a rebuild is scanning; replayed onto the fresh index after the swap.
+    private List<Consumer<AvailabilityIndex>> pendingUpdates = new ArrayList<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void build() {
+        rebuild();
+    }
+
+    // Reservations made on other nodes only reach this index through the database.
+    @Scheduled(cron = "0 */5 * * * *")
+    public void reconcile() {
+        rebuild();
+    }
+
+    private synchronized void rebuild() {
+        long start = System.currentTimeMillis();
+        synchronized (updatesLock) {
+            if (pendingUpdates == null) {
+                pendingUpdates = new ArrayList<>();
+            }
+        }
+        LocalDate today = LocalDate.now();
+        int days = (int) ChronoUnit.DAYS.between(today, today.plusMonths(HORIZON_MONTHS)) + 1;
+        AvailabilityIndex fresh = new AvailabilityIndex(days, today);
+
+        for (Object[] row : placeRepository.findAvailabilityRowsByStatus(PlaceStatus.ACTIVE)) {
+            fresh.putPlace((Long) row[0], (Long) row[1], (Integer) row[2], true);
+        }
+
+        long maxId = reservationRepository.findMaxId();
+        List<Object[]> stays = LongStream.rangeClosed(0, maxId / CHUNK_SIZE)
+            .parallel()
+            .mapToObj(chunk -> reservationRepository.findActiveStaysInIdRange(
+                chunk * CHUNK_SIZE + 1, (chunk + 1) * CHUNK_SIZE, today))
+            .flatMap(List::stream)
+            .collect(Collectors.toList());
+        for (Object[] row : stays) {
+            fresh.putStay((Long) row[0], (Long) row[1], (LocalDate) row[2], (LocalDate) row[3]);
+        }
+
+        int replayed;
+        synchronized (updatesLock) {
+            replayed = pendingUpdates.size();
+            pendingUpdates.forEach(update -> update.accept(fresh));
+            pendingUpdates = null;
+            index = fresh;
+        }
+        AvailabilityIndex.Stats stats = fresh.stats();
+        log.info("Availability index built: {} places, {} stays over {} days, ~{} KB in {} ms ({} replayed changes)",
+            stats.getPlaces(), stats.getStays(), stats.getDays(), stats.getEstimatedBytes() / 1024,
+            System.currentTimeMillis() - start, replayed);
+    }
+
+    @Scheduled(cron = "0 0 0 * * *")
+    public void advanceDay() {
+        AvailabilityIndex current = index;
+        if (current != null) {
+            current.advanceTo(LocalDate.now());
+        }
+    }
+
+    public Optional<List<Long>> findAvailablePlaceIds(Long cityId, int minGuests, LocalDate checkIn, LocalDate checkOut) {
+        AvailabilityIndex current = index;
+        if (current == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(current.findAvailable(cityId, minGuests, checkIn, checkOut));
+    }
+
+    @TransactionalEventListener
+    public void onReservationChanged(ReservationChangedEvent event) {
+        if (event.getType() != ReservationChangedEvent.Type.DELETED &&
+            (event.getStatus() == ReservationStatus.PENDING || event.getStatus() == ReservationStatus.CONFIRMED)) {
+            update(current -> current.putStay(event.getReservationId(), event.getPlaceId(), event.getCheckIn(), event.getCheckOut()));
+        } else {
+            update(current -> current.removeStay(event.getReservationId()));
+        }
+    }
+
+    @TransactionalEventListener
+    public void onPlaceChanged(PlaceChangedEvent event) {
+        if (event.getType() == PlaceChangedEvent.Type.IMAGES_CHANGED ||
+            event.getType() == PlaceChangedEvent.Type.RATING_CHANGED) {
+            return;
+        }
+        if (event.getType() == PlaceChangedEvent.Type.DELETED) {
+            update(current -> current.removePlace(event.getPlaceId()));
+            return;
+        }
+        placeRepository.findById(event.getPlaceId()).ifPresentOrElse(place -> {
+                long cityId = place.getCity().getId();
+                int maxGuests = place.getMaxGuests();
+                boolean active = place.getStatus() == PlaceStatus.ACTIVE;
+                update(current -> current.putPlace(event.getPlaceId(), cityId, maxGuests, active));
+            },
+            () -> update(current -> current.removePlace(event.getPlaceId())));
+    }
+
+    private void update(Consumer<AvailabilityIndex> change) {
+        AvailabilityIndex current;
+        synchronized (updatesLock) {
+            if (pendingUpdates != null) {
+                pendingUpdates.add(change);
+            }
+            current = index;
+        }
+        // Updates are idempotent, so one buffered for the next index may also hit the current one.
+        if (current != null) {
+            change.accept(current);
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package com.rentigo.service;
+
+import com.rentigo.dto.BlockedRangeDto;
+import com.rentigo.dto.PlaceCalendarDto;
+import com.rentigo.entity.ReservationStatus;
+import com.rentigo.event.PlaceChangedEvent;
+import com.rentigo.event.ReservationChangedEvent;
+import com.rentigo.exception.BadRequestException;
+import com.rentigo.exception.ResourceNotFoundException;
+import com.rentigo.index.StayCalendar;
+import com.rentigo.repository.PlaceRepository;
+import com.rentigo.repository.ReservationRepository;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+// Calendars are loaded per place on first request and kept current by reservation events. Events for a
+// place whose calendar is loading wait on the map bin, so a change committed mid-load is never lost.
+// Bookings made on other nodes are only seen on reload, so calendars expire after a short TTL, and the
+// ETag is derived from the blocked ranges themselves so every node answers the same data with the same tag.
+@Service
+public class PlaceCalendarService {
+    private static final int DEFAULT_DAYS = 365;
+    private static final int MAX_DAYS = 731;
+
+    private final PlaceRepository placeRepository;
+    private final ReservationRepository reservationRepository;
+    private final int maxEntries;
+    private final long ttlMillis;
+
+    private final Map<Long, Loaded> calendars = new ConcurrentHashMap<>();
+
+    public PlaceCalendarService(PlaceRepository placeRepository, ReservationRepository reservationRepository,
+                                @Value("${cache.place-calendars.max-entries:10000}") int maxEntries,
+                                @Value("${cache.place-calendars.ttl-seconds:30}") long ttlSeconds) {
+        this.placeRepository = placeRepository;
+        this.reservationRepository = reservationRepository;
+        this.maxEntries = maxEntries;
+        this.ttlMillis = ttlSeconds * 1000;
+    }
+
+    public Calendar getCalendar(Long placeId, LocalDate from, LocalDate to) {
+        LocalDate start = from != null ? from : LocalDate.now();
+        LocalDate end = to != null ? to : start.plusDays(DEFAULT_DAYS - 1);
+        if (end.isBefore(start)) {
+            throw new BadRequestException("Data końcowa musi być po dacie początkowej");
+        }
+        if (end.toEpochDay() - start.toEpochDay() >= MAX_DAYS) {
+            throw new BadRequestException("Maksymalny zakres kalendarza to " + MAX_DAYS + " dni");
+        }
+
+        long now = System.currentTimeMillis();
+        Loaded loaded = calendars.compute(placeId,
+            (id, existing) -> existing != null && existing.expiresAt > now ? existing : load(id, now));
+        if (calendars.size() > maxEntries) {
+            evictOldest();
+        }
+
+        List<long[]> blocked = loaded.calendar.blocked(start.toEpochDay(), end.toEpochDay());
+        String etag = "\"" + placeId + "-" + start + "-" + end + "-" + Long.toHexString(fingerprint(blocked)) + "\"";
+        return new Calendar(etag, () -> PlaceCalendarDto.builder()
+            .placeId(placeId)
+            .from(start)
+            .to(end)
+            .blocked(blocked.stream()
+                .map(range -> new BlockedRangeDto(LocalDate.ofEpochDay(range[0]), (int) (range[1] - range[0] + 1)))
+                .collect(Collectors.toList()))
+            .build());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReservationChanged(ReservationChangedEvent event) {
+        calendars.computeIfPresent(event.getPlaceId(), (placeId, loaded) -> {
+            if (event.getType() != ReservationChangedEvent.Type.DELETED &&
+                (event.getStatus() == ReservationStatus.PENDING || event.getStatus() == ReservationStatus.CONFIRMED)) {
+                loaded.calendar.put(event.getReservationId(), event.getCheckIn().toEpochDay(), event.getCheckOut().toEpochDay());
+            } else {
+                loaded.calendar.remove(event.getReservationId());
+            }
+            return loaded;
+        });
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPlaceChanged(PlaceChangedEvent event) {
+        if (event.getType() == PlaceChangedEvent.Type.DELETED) {
+            calendars.remove(event.getPlaceId());
+        }
+    }
+
+    // Evicts the soonest-expiring calendars, plus a tenth of the bound so a burst of distinct places
+    // does not rescan the map on every request.
+    private synchronized void evictOldest() {
+        int excess = calendars.size() - maxEntries;
+        if (excess <= 0) {
+            return;
+        }
+        calendars.entrySet().stream()
+            .sorted(Comparator.comparingLong(entry -> entry.getValue().expiresAt))
+            .limit(excess + maxEntries / 10)
+            .map(Map.Entry::getKey)
+            .collect(Collectors.toList())
+            .forEach(calendars::remove);
+    }
+
+    // FNV-1a over the range bounds.
+    private static long fingerprint(List<long[]> ranges) {
+        long hash = 0xcbf29ce484222325L;
+        for (long[] range : ranges) {
+            for (long day : range) {
+                hash = (hash ^ day) * 0x100000001b3L;
+            }
+        }
+        return hash;
+    }
+
+    private Loaded load(Long placeId, long now) {
+        if (!placeRepository.existsById(placeId)) {
+            throw new ResourceNotFoundException("Miejsce nie znalezione");
+        }
+        StayCalendar calendar = new StayCalendar();
+        for (Object[] row : reservationRepository.findActiveStaysByPlaceId(placeId)) {
+            calendar.put((Long) row[0], ((LocalDate) row[1]).toEpochDay(), ((LocalDate) row[2]).toEpochDay());
+        }
+        return new Loaded(now + ttlMillis, calendar);
+    }
+
+    // The body is built only when the client's ETag does not match.
+    @Getter
+    @AllArgsConstructor
+    public static class Calendar {
+        private final String etag;
+        private final Supplier<PlaceCalendarDto> body;
+    }
+
+    @AllArgsConstructor
+    private static final class Loaded {
+        private final long expiresAt;
+        private final StayCalendar calendar;
+    }
+}
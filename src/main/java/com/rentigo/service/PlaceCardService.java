@@ -0,0 +1,50 @@
+package com.rentigo.service;
+
+import com.rentigo.event.PlaceChangedEvent;
+import com.rentigo.event.ReservationChangedEvent;
+import com.rentigo.repository.PlaceCardRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PlaceCardService {
+    private final PlaceCardRepository placeCardRepository;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        int removed = placeCardRepository.deleteOrphans();
+        int refreshed = placeCardRepository.refreshAll();
+        log.info("Place cards rebuilt: {} refreshed, {} removed in {} ms",
+            refreshed, removed, System.currentTimeMillis() - start);
+    }
+
+    // Image uploads run outside a transaction, hence fallbackExecution.
+    @TransactionalEventListener(fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void onPlaceChanged(PlaceChangedEvent event) {
+        if (event.getType() == PlaceChangedEvent.Type.DELETED) {
+            placeCardRepository.deleteByPlaceId(event.getPlaceId());
+        } else {
+            placeCardRepository.refresh(List.of(event.getPlaceId()));
+        }
+    }
+
+    @TransactionalEventListener
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void onReservationChanged(ReservationChangedEvent event) {
+        if (event.getType() != ReservationChangedEvent.Type.STATUS_CHANGED) {
+            placeCardRepository.refresh(List.of(event.getPlaceId()));
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.rentigo.service;
+
+import com.rentigo.cache.WeightedLruCache;
+import com.rentigo.dto.CacheStatsDto;
+import com.rentigo.dto.PlaceDto;
+import com.rentigo.event.PlaceChangedEvent;
+import com.rentigo.event.UserChangedEvent;
+import lombok.AllArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+// Holds the user-independent part of PlaceDto. Every invalidation takes a stamp from a shared clock;
+// an entry is current only if it was loaded after the latest stamp of its place, owner and city, so a
+// load racing a commit is never cached with stale data. Stamp maps are capped: pruning drops the older
+// half and raises a floor stamp, so entries loaded before any dropped stamp are treated as stale.
+@Service
+public class PlaceDetailCache {
+    private static final int MAX_STAMPS = 4096;
+
+    private final WeightedLruCache<Long, Cached> cache;
+    private final AtomicLong clock = new AtomicLong();
+    private final Map<Long, Long> placeStamps = new ConcurrentHashMap<>();
+    private final Map<Long, Long> ownerStamps = new ConcurrentHashMap<>();
+    private final Map<Long, Long> cityStamps = new ConcurrentHashMap<>();
+    private volatile long floorStamp;
+
+    public PlaceDetailCache(@Value("${cache.place-details.max-bytes:33554432}") long maxBytes) {
+        this.cache = new WeightedLruCache<>(maxBytes, cached -> estimateBytes(cached.details));
+    }
+
+    public PlaceDto get(Long placeId, Supplier<PlaceDto> loader) {
+        Cached cached = cache.get(placeId, entry -> isCurrent(placeId, entry));
+        if (cached != null) {
+            return cached.details;
+        }
+
+        long stamp = clock.get();
+        PlaceDto details = loader.get();
+        Cached loaded = new Cached(details, details.getOwner().getId(), details.getCity().getId(), stamp);
+        if (isCurrent(placeId, loaded)) {
+            cache.put(placeId, loaded);
+        }
+        return details;
+    }
+
+    public CacheStatsDto getStats() {
+        return CacheStatsDto.of(cache.stats());
+    }
+
+    // Creating, moving or deleting a place also changes its owner's place count and its cities' place counts.
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPlaceChanged(PlaceChangedEvent event) {
+        stamp(placeStamps, event.getPlaceId());
+        cache.remove(event.getPlaceId());
+
+        switch (event.getType()) {
+            case CREATED:
+            case DELETED:
+                stamp(ownerStamps, event.getOwnerId());
+                stamp(cityStamps, event.getCityId());
+                break;
+            case UPDATED:
+                if (!event.getCityId().equals(event.getPreviousCityId())) {
+                    stamp(cityStamps, event.getPreviousCityId());
+                    stamp(cityStamps, event.getCityId());
+                }
+                break;
+            default:
+                break;
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        stamp(ownerStamps, event.getUserId());
+    }
+
+    private void stamp(Map<Long, Long> stamps, Long id) {
+        stamps.put(id, clock.incrementAndGet());
+        if (stamps.size() > MAX_STAMPS) {
+            prune(stamps);
+        }
+    }
+
+    private synchronized void prune(Map<Long, Long> stamps) {
+        if (stamps.size() <= MAX_STAMPS) {
+            return;
+        }
+        long cutoff = stamps.values().stream().sorted().skip(stamps.size() / 2).findFirst().orElse(0L);
+        // The floor is raised before the stamps go, so no check ever sees neither.
+        floorStamp = Math.max(floorStamp, cutoff);
+        stamps.values().removeIf(stamp -> stamp <= cutoff);
+    }
+
+    private boolean isCurrent(Long placeId, Cached cached) {
+        return cached.stamp >= floorStamp &&
+            cached.stamp >= placeStamps.getOrDefault(placeId, 0L) &&
+            cached.stamp >= ownerStamps.getOrDefault(cached.ownerId, 0L) &&
+            cached.stamp >= cityStamps.getOrDefault(cached.cityId, 0L);
+    }
+
+    private static long estimateBytes(PlaceDto details) {
+        long bytes = 640 + chars(details.getName()) + chars(details.getDescription()) +
+            chars(details.getDistrict()) + chars(details.getAddress()) + chars(details.getMainImageUrl());
+        bytes += 256 + chars(details.getOwner().getEmail()) + chars(details.getOwner().getFirstName()) +
+            chars(details.getOwner().getLastName()) + chars(details.getOwner().getAvatarUrl());
+        bytes += 96 + chars(details.getCity().getName()) + chars(details.getCity().getCountry());
+        bytes += details.getAmenities().stream()
+            .mapToLong(amenity -> 80 + chars(amenity.getName()) + chars(amenity.getIcon()))
+            .sum();
+        bytes += details.getImages().stream()
+            .mapToLong(image -> 96 + chars(image.getUrl()))
+            .sum();
+        return bytes;
+    }
+
+    private static long chars(String value) {
+        return value != null ? 40 + 2L * value.length() : 0;
+    }
+
+    @AllArgsConstructor
+    private static final class Cached {
+        private final PlaceDto details;
+        private final Long ownerId;
+        private final Long cityId;
+        private final long stamp;
+    }
+}
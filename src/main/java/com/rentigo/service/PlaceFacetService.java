@@ -0,0 +1,95 @@
+package com.rentigo.service;
+
+import com.rentigo.dto.PlaceFacetsDto;
+import com.rentigo.dto.PlaceListDto;
+import com.rentigo.dto.PriceBucketDto;
+import com.rentigo.dto.response.PageResponse;
+import com.rentigo.entity.Place;
+import com.rentigo.entity.PlaceType;
+import com.rentigo.entity.User;
+import com.rentigo.exception.BadRequestException;
+import com.rentigo.repository.PlaceCursor;
+import com.rentigo.repository.PlaceFilter;
+import com.rentigo.repository.PlaceRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+public class PlaceFacetService {
+    private static final List<BigDecimal> PRICE_BOUNDS = List.of(100, 200, 300, 500, 800).stream()
+        .map(BigDecimal::valueOf)
+        .collect(Collectors.toList());
+
+    private final PlaceRepository placeRepository;
+    private final PlaceListAssembler placeListAssembler;
+
+    public PlaceFacetsDto search(PlaceFilter filter, String sortBy, String sortDir, int page, int size, User currentUser) {
+        if (filter.getMinPrice() != null && filter.getMaxPrice() != null &&
+            filter.getMinPrice().compareTo(filter.getMaxPrice()) > 0) {
+            throw new BadRequestException("Cena minimalna nie może być większa niż maksymalna");
+        }
+        PlaceCursor.SortKey sortKey = PlaceCursor.SortKey.of(sortBy)
+            .orElseThrow(() -> new BadRequestException("Nieprawidłowe pole sortowania: " + sortBy));
+        Sort.Direction direction = "asc".equalsIgnoreCase(sortDir) ? Sort.Direction.ASC : Sort.Direction.DESC;
+        PageRequest pageable = PageRequest.of(page, size);
+
+        Map<PlaceType, Long> types = new EnumMap<>(PlaceType.class);
+        Map<Long, Long> amenities = new TreeMap<>();
+        Map<Integer, Long> bedrooms = new TreeMap<>();
+        long[] priceCounts = new long[PRICE_BOUNDS.size() + 1];
+        for (Object[] row : placeRepository.countFacets(filter, PRICE_BOUNDS)) {
+            String value = (String) row[1];
+            long count = ((Number) row[2]).longValue();
+            switch ((String) row[0]) {
+                case "type":
+                    types.put(PlaceType.valueOf(value), count);
+                    break;
+                case "bedrooms":
+                    bedrooms.put(Integer.valueOf(value), count);
+                    break;
+                case "price":
+                    priceCounts[Integer.parseInt(value)] = count;
+                    break;
+                default:
+                    amenities.put(Long.valueOf(value), count);
+            }
+        }
+        long total = types.values().stream().mapToLong(Long::longValue).sum();
+
+        List<Place> places = total > pageable.getOffset()
+            ? placeRepository.findActivePlaces(filter, sortKey, direction, pageable.getOffset(), size)
+            : List.of();
+        List<PlaceListDto> content = placeListAssembler.toList(places, currentUser);
+
+        return PlaceFacetsDto.builder()
+            .places(PageResponse.of(new PageImpl<>(content, pageable, total)))
+            .types(types)
+            .amenities(amenities)
+            .prices(toPriceBuckets(priceCounts))
+            .bedrooms(bedrooms)
+            .build();
+    }
+
+    private List<PriceBucketDto> toPriceBuckets(long[] counts) {
+        List<PriceBucketDto> buckets = new ArrayList<>(counts.length);
+        for (int i = 0; i < counts.length; i++) {
+            buckets.add(PriceBucketDto.builder()
+                .min(i == 0 ? BigDecimal.ZERO : PRICE_BOUNDS.get(i - 1))
+                .max(i < PRICE_BOUNDS.size() ? PRICE_BOUNDS.get(i) : null)
+                .count(counts[i])
+                .build());
+        }
+        return buckets;
+    }
+}
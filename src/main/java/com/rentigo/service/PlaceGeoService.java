@@ -0,0 +1,87 @@
+package com.rentigo.service;
+
+import com.rentigo.dto.MapMarkerDto;
+import com.rentigo.dto.PlaceListDto;
+import com.rentigo.entity.User;
+import com.rentigo.exception.BadRequestException;
+import com.rentigo.repository.PlaceRepository;
+import com.rentigo.util.GeoHash;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import java.util.List;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+public class PlaceGeoService {
+    private static final int MAX_QUERY_CELLS = 32;
+    private static final int MAX_MARKERS = 300;
+    private static final int MAX_NEARBY = 100;
+    private static final double MAX_RADIUS_KM = 100;
+
+    private final PlaceRepository placeRepository;
+    private final PlaceListAssembler placeListAssembler;
+
+    public List<PlaceListDto> findNearby(double latitude, double longitude, double radiusKm, int limit, User currentUser) {
+        validateCoordinates(latitude, longitude);
+        if (radiusKm <= 0 || radiusKm > MAX_RADIUS_KM) {
+            throw new BadRequestException("Promień musi mieścić się w zakresie 0-" + (int) MAX_RADIUS_KM + " km");
+        }
+        GeoHash.Box box = GeoHash.Box.around(latitude, longitude, radiusKm);
+        return placeListAssembler.toList(
+            placeRepository.findActivePlacesNear(box, queryCells(box), latitude, longitude, radiusKm,
+                Math.max(1, Math.min(limit, MAX_NEARBY))),
+            currentUser);
+    }
+
+    public List<MapMarkerDto> getMapMarkers(double minLat, double minLng, double maxLat, double maxLng, int zoom) {
+        validateCoordinates(minLat, minLng);
+        validateCoordinates(maxLat, maxLng);
+        if (minLat > maxLat || minLng > maxLng) {
+            throw new BadRequestException("Nieprawidłowy obszar mapy");
+        }
+        GeoHash.Box box = new GeoHash.Box(minLat, minLng, maxLat, maxLng);
+
+        int precision = clusterPrecision(zoom);
+        while (precision > 1 && GeoHash.countCells(box, precision) > MAX_MARKERS) {
+            precision--;
+        }
+
+        return placeRepository.clusterActivePlaces(box, queryCells(box), precision).stream()
+            .map(row -> {
+                long count = ((Number) row[1]).longValue();
+                return MapMarkerDto.builder()
+                    .cell((String) row[0])
+                    .count(count)
+                    .latitude(((Number) row[2]).doubleValue())
+                    .longitude(((Number) row[3]).doubleValue())
+                    .placeId(count == 1 ? ((Number) row[4]).longValue() : null)
+                    .build();
+            })
+            .collect(Collectors.toList());
+    }
+
+    private List<String> queryCells(GeoHash.Box box) {
+        int precision = 6;
+        while (precision > 1 && GeoHash.countCells(box, precision) > MAX_QUERY_CELLS) {
+            precision--;
+        }
+        return GeoHash.cover(box, precision);
+    }
+
+    private int clusterPrecision(int zoom) {
+        if (zoom <= 2) return 1;
+        if (zoom <= 5) return 2;
+        if (zoom <= 7) return 3;
+        if (zoom <= 10) return 4;
+        if (zoom <= 12) return 5;
+        if (zoom <= 15) return 6;
+        return 7;
+    }
+
+    private void validateCoordinates(double latitude, double longitude) {
+        if (latitude < -90 || latitude > 90 || longitude < -180 || longitude > 180) {
+            throw new BadRequestException("Nieprawidłowe współrzędne geograficzne");
+        }
+    }
+}
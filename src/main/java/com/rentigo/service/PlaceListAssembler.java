@@ -0,0 +1,86 @@
+package com.rentigo.service;
+
+import com.rentigo.dto.PlaceListDto;
+import com.rentigo.entity.Place;
+import com.rentigo.entity.PlaceCard;
+import com.rentigo.entity.User;
+import com.rentigo.repository.FavoriteRepository;
+import com.rentigo.repository.PlaceCardRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.stereotype.Service;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+public class PlaceListAssembler {
+    private final PlaceCardRepository placeCardRepository;
+    private final FavoriteRepository favoriteRepository;
+
+    public Page<PlaceListDto> toPage(Page<Place> page, User currentUser) {
+        return new PageImpl<>(toList(page.getContent(), currentUser), page.getPageable(), page.getTotalElements());
+    }
+
+    public List<PlaceListDto> toList(List<Place> places, User currentUser) {
+        return toListByIds(places.stream().map(Place::getId).collect(Collectors.toList()), currentUser);
+    }
+
+    public List<PlaceListDto> toListByIds(List<Long> ids, User currentUser) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+
+        Set<Long> placeIds = new LinkedHashSet<>(ids);
+        Map<Long, PlaceCard> cards = findCards(placeIds);
+        Set<Long> favoriteIds = currentUser != null
+            ? new HashSet<>(favoriteRepository.findPlaceIdsByUserAndPlaceIds(currentUser, placeIds))
+            : Set.of();
+
+        return ids.stream()
+            .map(cards::get)
+            .filter(Objects::nonNull)
+            .map(card -> PlaceListDto.builder()
+                .id(card.getPlaceId())
+                .name(card.getName())
+                .cityName(card.getCityName())
+                .district(card.getDistrict())
+                .latitude(card.getLatitude())
+                .longitude(card.getLongitude())
+                .type(card.getType())
+                .pricePerNight(card.getPricePerNight())
+                .cleaningFee(card.getCleaningFee())
+                .maxGuests(card.getMaxGuests())
+                .bedrooms(card.getBedrooms())
+                .rating(card.getRating())
+                .reviewCount(card.getReviewCount())
+                .status(card.getStatus())
+                .mainImageUrl(card.getMainImageUrl())
+                .isFavorite(favoriteIds.contains(card.getPlaceId()))
+                .ownerId(card.getOwnerId())
+                .reservationCount(card.getReservationCount())
+                .build())
+            .collect(Collectors.toList());
+    }
+
+    // A card can lag its place by one commit; missing ones are computed from the live tables without being
+    // written, so list reads stay read-only. PlaceCardService backfills them at startup and on change events.
+    private Map<Long, PlaceCard> findCards(Set<Long> placeIds) {
+        Map<Long, PlaceCard> cards = placeCardRepository.findAllById(placeIds).stream()
+            .collect(Collectors.toMap(PlaceCard::getPlaceId, Function.identity()));
+        if (cards.size() < placeIds.size()) {
+            Set<Long> missing = placeIds.stream()
+                .filter(id -> !cards.containsKey(id))
+                .collect(Collectors.toSet());
+            placeCardRepository.computeByPlaceIds(missing).forEach(card -> cards.put(card.getPlaceId(), card));
+        }
+        return cards;
+    }
+}
@@ -0,0 +1,94 @@
+package com.rentigo.service;
+
+import com.rentigo.cache.WeightedLruCache;
+import com.rentigo.dto.CacheStatsDto;
+import com.rentigo.event.PlaceChangedEvent;
+import lombok.AllArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+// Caches id pages of listing queries; cards and favorites are assembled per request. A city-scoped entry
+// goes stale when a place in that city changes, an unscoped one when any place changes. Stamps follow
+// PlaceDetailCache so a load racing a commit is not cached.
+@Service
+public class PlaceResultCache {
+    private final WeightedLruCache<String, Cached> cache;
+    private final long ttlMillis;
+    private final AtomicLong clock = new AtomicLong();
+    private final Map<Long, Long> cityStamps = new ConcurrentHashMap<>();
+    private volatile long anyPlaceStamp;
+
+    public PlaceResultCache(@Value("${cache.place-results.max-bytes:8388608}") long maxBytes,
+                            @Value("${cache.place-results.ttl-seconds:60}") long ttlSeconds) {
+        this.cache = new WeightedLruCache<>(maxBytes, cached -> 96 + 2L * cached.key.length() + 24L * cached.ids.size());
+        this.ttlMillis = ttlSeconds * 1000;
+    }
+
+    public static String key(String operation, Pageable pageable, Object... parts) {
+        StringBuilder key = new StringBuilder(operation);
+        for (Object part : parts) {
+            key.append('|').append(part);
+        }
+        return key.append('|').append(pageable.getPageNumber())
+            .append('|').append(pageable.getPageSize())
+            .append('|').append(pageable.getSort())
+            .toString();
+    }
+
+    public Page<Long> get(String key, Long cityId, Pageable pageable, Supplier<Page<Long>> loader) {
+        long now = System.currentTimeMillis();
+        Cached cached = cache.get(key, entry -> entry.expiresAt > now && isCurrent(entry));
+        if (cached != null) {
+            return new PageImpl<>(cached.ids, pageable, cached.total);
+        }
+
+        long stamp = clock.get();
+        Page<Long> page = loader.get();
+        Cached loaded = new Cached(key, cityId, List.copyOf(page.getContent()), page.getTotalElements(),
+            stamp, now + ttlMillis);
+        if (isCurrent(loaded)) {
+            cache.put(key, loaded);
+        }
+        return page;
+    }
+
+    public CacheStatsDto getStats() {
+        return CacheStatsDto.of(cache.stats());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPlaceChanged(PlaceChangedEvent event) {
+        if (event.getType() == PlaceChangedEvent.Type.IMAGES_CHANGED) {
+            return;
+        }
+        cityStamps.put(event.getCityId(), clock.incrementAndGet());
+        cityStamps.put(event.getPreviousCityId(), clock.incrementAndGet());
+        anyPlaceStamp = clock.incrementAndGet();
+        cache.removeIf((key, cached) -> cached.cityId == null ||
+            cached.cityId.equals(event.getCityId()) || cached.cityId.equals(event.getPreviousCityId()));
+    }
+
+    private boolean isCurrent(Cached cached) {
+        long stamp = cached.cityId == null ? anyPlaceStamp : cityStamps.getOrDefault(cached.cityId, 0L);
+        return cached.stamp >= stamp;
+    }
+
+    @AllArgsConstructor
+    private static final class Cached {
+        private final String key;
+        private final Long cityId;
+        private final List<Long> ids;
+        private final long total;
+        private final long stamp;
+        private final long expiresAt;
+    }
+}
@@ -0,0 +1,143 @@
+package com.rentigo.service;
+
+import com.rentigo.dto.SearchIndexStatsDto;
+import com.rentigo.entity.Place;
+import com.rentigo.entity.PlaceStatus;
+import com.rentigo.event.PlaceChangedEvent;
+import com.rentigo.index.TrigramIndex;
+import com.rentigo.repository.PlaceRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PlaceSearchIndexService {
+    private static final int MAX_RESULTS = 1000;
+
+    private final PlaceRepository placeRepository;
+    private final Object updatesLock = new Object();
+    private volatile TrigramIndex index;
+    // Changes seen while a rebuild is scanning; replayed onto the fresh index before the swap.
+    private List<Consumer<TrigramIndex>> pendingUpdates = new ArrayList<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void build() {
+        rebuild();
+    }
+
+    // City renames have no API and happen only in the database, like edits made on other nodes;
+    // they reach the index through this rebuild.
+    @Scheduled(cron = "0 0 * * * *")
+    public void reconcile() {
+        rebuild();
+    }
+
+    private synchronized void rebuild() {
+        long start = System.currentTimeMillis();
+        synchronized (updatesLock) {
+            if (pendingUpdates == null) {
+                pendingUpdates = new ArrayList<>();
+            }
+        }
+        TrigramIndex fresh = new TrigramIndex();
+        placeRepository.findAllWithCityByStatus(PlaceStatus.ACTIVE).forEach(place -> put(fresh, place));
+
+        int replayed;
+        synchronized (updatesLock) {
+            replayed = pendingUpdates.size();
+            pendingUpdates.forEach(update -> update.accept(fresh));
+            pendingUpdates = null;
+            index = fresh;
+        }
+        TrigramIndex.Stats stats = fresh.stats();
+        log.info("Place search index built: {} places, {} trigrams, ~{} KB in {} ms ({} replayed changes)",
+            stats.getDocuments(), stats.getTrigrams(), stats.getEstimatedBytes() / 1024,
+            System.currentTimeMillis() - start, replayed);
+    }
+
+    @TransactionalEventListener
+    public void onPlaceChanged(PlaceChangedEvent event) {
+        if (event.getType() == PlaceChangedEvent.Type.IMAGES_CHANGED ||
+            event.getType() == PlaceChangedEvent.Type.RATING_CHANGED) {
+            return;
+        }
+        Long placeId = event.getPlaceId();
+        if (event.getType() == PlaceChangedEvent.Type.DELETED) {
+            update(current -> current.remove(placeId));
+            return;
+        }
+        placeRepository.findById(placeId).ifPresentOrElse(place -> {
+            if (place.getStatus() == PlaceStatus.ACTIVE) {
+                // Read the fields now; a buffered change may run after the entity is detached.
+                String name = place.getName();
+                String city = place.getCity().getName();
+                String district = place.getDistrict();
+                String address = place.getAddress();
+                update(current -> current.put(placeId, name, city, district, address));
+            } else {
+                update(current -> current.remove(placeId));
+            }
+        }, () -> update(current -> current.remove(placeId)));
+    }
+
+    public Page<Long> search(String query, Pageable pageable) {
+        TrigramIndex current = index;
+        if (current == null) {
+            return Page.empty(pageable);
+        }
+        List<TrigramIndex.Match> matches = current.search(query, MAX_RESULTS);
+        List<Long> ids = matches.stream()
+            .skip(pageable.getOffset())
+            .limit(pageable.getPageSize())
+            .map(TrigramIndex.Match::getKey)
+            .collect(Collectors.toList());
+        return new PageImpl<>(ids, pageable, matches.size());
+    }
+
+    public SearchIndexStatsDto getStats() {
+        TrigramIndex current = index;
+        if (current == null) {
+            return SearchIndexStatsDto.builder().build();
+        }
+        TrigramIndex.Stats stats = current.stats();
+        return SearchIndexStatsDto.builder()
+            .indexedPlaces(stats.getDocuments())
+            .distinctTrigrams(stats.getTrigrams())
+            .postingEntries(stats.getPostingEntries())
+            .estimatedBytes(stats.getEstimatedBytes())
+            .bytesPerPlace(stats.getDocuments() > 0 ? stats.getEstimatedBytes() / stats.getDocuments() : 0)
+            .build();
+    }
+
+    private void update(Consumer<TrigramIndex> change) {
+        TrigramIndex current;
+        synchronized (updatesLock) {
+            if (pendingUpdates != null) {
+                pendingUpdates.add(change);
+            }
+            current = index;
+        }
+        // Puts and removes are idempotent, so one buffered for the next index may also hit the current one.
+        if (current != null) {
+            change.accept(current);
+        }
+    }
+
+    private static void put(TrigramIndex target, Place place) {
+        target.put(place.getId(), place.getName(),
+            place.getCity().getName(), place.getDistrict(), place.getAddress());
+    }
+}
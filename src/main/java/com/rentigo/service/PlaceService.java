@@ -2,16 +2,33 @@ package com.rentigo.service;
 
 import com.rentigo.dto.*;
 import com.rentigo.dto.request.CreatePlaceRequest;
+import com.rentigo.dto.response.PageResponse;
 import com.rentigo.entity.*;
+import com.rentigo.event.PlaceChangedEvent;
+import com.rentigo.exception.BadRequestException;
 import com.rentigo.exception.ResourceNotFoundException;
 import com.rentigo.repository.*;
+import com.rentigo.util.AmenityMask;
 import com.rentigo.util.PermissionChecker;
+import com.rentigo.util.SearchText;
+import com.rentigo.util.StayPrice;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -21,11 +38,23 @@ public class PlaceService {
     private final PlaceRepository placeRepository;
     private final PlaceImageRepository placeImageRepository;
     private final FavoriteRepository favoriteRepository;
-    private final ReservationRepository reservationRepository;
     private final CityService cityService;
     private final AmenityService amenityService;
     private final UserService userService;
     private final FileStorageService fileStorageService;
+    private final PlaceListAssembler placeListAssembler;
+    private final PlaceDetailCache placeDetailCache;
+    private final PlaceResultCache placeResultCache;
+    private final PlaceTrendingService placeTrendingService;
+    private final PlaceSearchIndexService placeSearchIndexService;
+    private final PlaceAvailabilityService placeAvailabilityService;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private static final String SORT_TOTAL_PRICE = "totalPrice";
+    private static final int MAX_PAGE_SIZE = 100;
+
+    @Value("${search.mode:fulltext}")
+    private String searchMode;
 
     public PlaceDto toDto(Place place) {
         return toDto(place, null);
@@ -45,6 +74,8 @@ public class PlaceService {
             .city(cityService.toDto(place.getCity()))
             .district(place.getDistrict())
             .address(place.getAddress())
+            .latitude(place.getLatitude())
+            .longitude(place.getLongitude())
             .type(place.getType())
             .pricePerNight(place.getPricePerNight())
             .cleaningFee(place.getCleaningFee())
@@ -72,31 +103,20 @@ public class PlaceService {
             .build();
     }
 
-    public PlaceListDto toListDto(Place place, User currentUser) {
+    public PlaceDto getPlaceDetails(Long id, User currentUser) {
+        PlaceDto details = placeDetailCache.get(id, () -> toDto(findById(id)));
+        placeTrendingService.recordView(id);
         boolean isFavorite = currentUser != null &&
-            favoriteRepository.existsByUserAndPlace(currentUser, place);
-
-        int reservationCount = (int) reservationRepository.countByPlace(place);
-
-        return PlaceListDto.builder()
-            .id(place.getId())
-            .name(place.getName())
-            .cityName(place.getCity().getName())
-            .district(place.getDistrict())
-            .type(place.getType())
-            .pricePerNight(place.getPricePerNight())
-            .maxGuests(place.getMaxGuests())
-            .bedrooms(place.getBedrooms())
-            .rating(place.getRating())
-            .reviewCount(place.getReviewCount())
-            .status(place.getStatus())
-            .mainImageUrl(place.getMainImageUrl())
+            favoriteRepository.existsByUserAndPlaceId(currentUser, id);
+        return details.toBuilder()
             .isFavorite(isFavorite)
-            .ownerId(place.getOwner() != null ? place.getOwner().getId() : null)
-            .reservationCount(reservationCount)
             .build();
     }
 
+    public PlaceListDto toListDto(Place place, User currentUser) {
+        return placeListAssembler.toList(List.of(place), currentUser).get(0);
+    }
+
     public PlaceImageDto toImageDto(PlaceImage image) {
         return PlaceImageDto.builder()
             .id(image.getId())
@@ -112,45 +132,211 @@ public class PlaceService {
     }
 
     public Page<PlaceListDto> getActivePlaces(Pageable pageable, User currentUser) {
-        return placeRepository.findByStatus(PlaceStatus.ACTIVE, pageable)
-            .map(p -> toListDto(p, currentUser));
+        Page<Long> ids = placeResultCache.get(PlaceResultCache.key("active", pageable), null, pageable,
+            () -> placeRepository.findByStatus(PlaceStatus.ACTIVE, pageable).map(Place::getId));
+        return toPage(ids, currentUser);
+    }
+
+    public PageResponse<PlaceListDto> getActivePlacesAfter(String cursor, String sortBy, String sortDir, int size, User currentUser) {
+        return findPlacesAfter(new PlaceFilter(), cursor, sortBy, sortDir, size, currentUser);
+    }
+
+    public PageResponse<PlaceListDto> searchPlacesAfter(String query, String cursor, String sortBy, String sortDir, int size, User currentUser) {
+        String tsquery = SearchText.toPrefixTsQuery(query);
+        if (tsquery.isEmpty()) {
+            return PageResponse.ofCursor(List.of(), size, null);
+        }
+        return findPlacesAfter(PlaceFilter.builder().tsquery(tsquery).build(), cursor, sortBy, sortDir, size, currentUser);
+    }
+
+    public PageResponse<PlaceListDto> getPlacesByCityAfter(Long cityId, Integer guests, LocalDate checkIn, LocalDate checkOut,
+                                                           String cursor, String sortBy, String sortDir, int size, User currentUser) {
+        PlaceFilter filter = PlaceFilter.builder()
+            .cityId(cityId)
+            .minGuests(guests != null && guests > 0 ? guests : 0)
+            .checkIn(checkIn)
+            .checkOut(checkOut)
+            .build();
+        PageResponse<PlaceListDto> page = findPlacesAfter(filter, cursor, sortBy, sortDir, size, currentUser);
+        if (checkIn != null && checkOut != null) {
+            applyStayTotals(page.getContent(), checkIn, checkOut);
+        }
+        return page;
+    }
+
+    private PageResponse<PlaceListDto> findPlacesAfter(PlaceFilter filter, String cursor, String sortBy, String sortDir, int requestedSize, User currentUser) {
+        if (requestedSize < 1) {
+            throw new BadRequestException("Nieprawidłowy rozmiar strony");
+        }
+        int size = Math.min(requestedSize, MAX_PAGE_SIZE);
+        PlaceCursor.SortKey sortKey = sortKey(sortBy);
+        Sort.Direction direction = "asc".equalsIgnoreCase(sortDir) ? Sort.Direction.ASC : Sort.Direction.DESC;
+        PlaceCursor position;
+        try {
+            position = cursor == null || cursor.isEmpty() ? PlaceCursor.first(sortKey, direction) : PlaceCursor.decode(cursor);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Nieprawidłowy kursor");
+        }
+
+        List<Place> places = placeRepository.findActivePlacesAfter(filter, position, size + 1);
+        String nextCursor = null;
+        if (places.size() > size) {
+            places = places.subList(0, size);
+            nextCursor = PlaceCursor.after(places.get(size - 1), position.getSortKey(), position.getDirection()).encode();
+        }
+        return PageResponse.ofCursor(placeListAssembler.toList(places, currentUser), size, nextCursor);
     }
 
-    public Page<PlaceListDto> searchPlaces(String query, Pageable pageable, User currentUser) {
-        return placeRepository.searchPlaces(query, pageable)
-            .map(p -> toListDto(p, currentUser));
+    private PlaceCursor.SortKey sortKey(String sortBy) {
+        return PlaceCursor.SortKey.of(sortBy)
+            .orElseThrow(() -> new BadRequestException("Nieprawidłowe pole sortowania: " + sortBy));
     }
 
-    public Page<PlaceListDto> getPlacesByCity(Long cityId, Integer guests, java.time.LocalDate checkIn, java.time.LocalDate checkOut, Pageable pageable, User currentUser) {
+    public Page<PlaceListDto> searchPlaces(String query, String sortBy, String sortDir, Pageable pageable, User currentUser) {
+        boolean relevance = sortBy == null || sortBy.equalsIgnoreCase("relevance");
+        if (!relevance) {
+            sortKey(sortBy);
+        }
+        Sort.Direction direction = "asc".equalsIgnoreCase(sortDir) ? Sort.Direction.ASC : Sort.Direction.DESC;
+        String text = query.trim();
+        boolean like = "like".equalsIgnoreCase(searchMode);
+
+        // LIKE only ignores case; the full-text and memory backends also fold diacritics and punctuation.
+        String normalized = like ? text.toLowerCase(Locale.ROOT) : String.join(" ", SearchText.tokens(text));
+        String key = PlaceResultCache.key("search", pageable, searchMode, normalized,
+            relevance ? "relevance" : sortBy, direction);
+        Page<Long> ids = placeResultCache.get(key, null, pageable,
+            () -> searchPlaceIds(text, relevance, sortBy, direction, pageable));
+        return toPage(ids, currentUser);
+    }
+
+    private Page<Long> searchPlaceIds(String query, boolean relevance, String sortBy, Sort.Direction direction, Pageable pageable) {
+        if ("memory".equalsIgnoreCase(searchMode) && relevance) {
+            return placeSearchIndexService.search(query, pageable);
+        }
+
+        if ("like".equalsIgnoreCase(searchMode)) {
+            Pageable sorted = relevance ? pageable
+                : PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(),
+                    Sort.by(direction, sortKey(sortBy).getProperty()).and(Sort.by(direction, "id")));
+            return placeRepository.searchPlaces(query, sorted).map(Place::getId);
+        }
+
+        String tsquery = SearchText.toPrefixTsQuery(query);
+        if (tsquery.isEmpty()) {
+            return Page.empty(pageable);
+        }
+
         Page<Place> places;
-        if (guests != null && guests > 0) {
-            places = placeRepository.findAvailablePlaces(cityId, guests, PlaceStatus.ACTIVE, pageable);
+        if (relevance) {
+            places = placeRepository.searchPlacesByRelevance(tsquery, pageable);
         } else {
-            places = placeRepository.findByCityIdAndStatus(cityId, PlaceStatus.ACTIVE, pageable);
+            String column = sortKey(sortBy).getColumn();
+            places = placeRepository.searchPlacesFullText(tsquery,
+                PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), Sort.by(direction, column).and(Sort.by(direction, "id"))));
         }
+        return places.map(Place::getId);
+    }
 
+    public Page<PlaceListDto> getPlacesByCity(Long cityId, Integer guests, LocalDate checkIn, LocalDate checkOut,
+                                              String sortBy, String sortDir, Pageable pageable, User currentUser) {
+        int minGuests = guests != null && guests > 0 ? guests : 0;
         if (checkIn != null && checkOut != null) {
-            List<Place> placeList = places.getContent();
-            List<Place> availablePlaces = placeList.stream()
-                .filter(place -> {
-                    List<com.rentigo.entity.Reservation> conflicts = reservationRepository.findConflictingReservations(place, checkIn, checkOut);
-                    return conflicts.isEmpty();
-                })
-                .collect(java.util.stream.Collectors.toList());
-            return new org.springframework.data.domain.PageImpl<>(
-                availablePlaces.stream().map(p -> toListDto(p, currentUser)).collect(java.util.stream.Collectors.toList()),
-                pageable,
-                availablePlaces.size()
-            );
+            return findAvailablePlaces(cityId, minGuests, checkIn, checkOut, sortBy, sortDir, pageable, currentUser);
         }
+        if (SORT_TOTAL_PRICE.equalsIgnoreCase(sortBy)) {
+            throw new BadRequestException("Sortowanie według ceny całkowitej wymaga podania dat pobytu");
+        }
+        Sort.Direction direction = "asc".equalsIgnoreCase(sortDir) ? Sort.Direction.ASC : Sort.Direction.DESC;
+        Pageable sorted = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(),
+            Sort.by(direction, sortKey(sortBy).getProperty()).and(Sort.by(direction, "id")));
 
-        return places.map(p -> toListDto(p, currentUser));
+        // Date-bound results also depend on reservations, so only guest-count listings are cached.
+        Page<Long> ids = placeResultCache.get(PlaceResultCache.key("city", sorted, cityId, minGuests), cityId, sorted,
+            () -> (minGuests > 0
+                ? placeRepository.findAvailablePlaces(cityId, minGuests, PlaceStatus.ACTIVE, sorted)
+                : placeRepository.findByCityIdAndStatus(cityId, PlaceStatus.ACTIVE, sorted)).map(Place::getId));
+        return toPage(ids, currentUser);
     }
 
-    public List<PlaceListDto> getPlacesByOwner(User owner) {
-        return placeRepository.findByOwner(owner).stream()
-            .map(p -> toListDto(p, owner))
+    public Page<PlaceListDto> getAvailablePlaces(Integer guests, LocalDate checkIn, LocalDate checkOut,
+                                                 String sortBy, String sortDir, Pageable pageable, User currentUser) {
+        if (!checkOut.isAfter(checkIn)) {
+            throw new BadRequestException("Data wymeldowania musi być po dacie zameldowania");
+        }
+        int minGuests = guests != null && guests > 0 ? guests : 0;
+        return findAvailablePlaces(null, minGuests, checkIn, checkOut, sortBy, sortDir, pageable, currentUser);
+    }
+
+    private Page<PlaceListDto> findAvailablePlaces(Long cityId, int minGuests, LocalDate checkIn, LocalDate checkOut,
+                                                   String sortBy, String sortDir, Pageable pageable, User currentUser) {
+        Page<PlaceListDto> places;
+        Sort.Direction direction = "asc".equalsIgnoreCase(sortDir) ? Sort.Direction.ASC : Sort.Direction.DESC;
+        if (SORT_TOTAL_PRICE.equalsIgnoreCase(sortBy)) {
+            PlaceFilter filter = PlaceFilter.builder()
+                .cityId(cityId)
+                .minGuests(minGuests)
+                .checkIn(checkIn)
+                .checkOut(checkOut)
+                .build();
+            List<Long> ids = placeRepository.findActivePlaceIdsByStayTotal(filter, ChronoUnit.DAYS.between(checkIn, checkOut),
+                direction, pageable.getOffset(), pageable.getPageSize());
+            places = new PageImpl<>(placeListAssembler.toListByIds(ids, currentUser), pageable,
+                placeRepository.countActivePlaces(filter));
+        } else {
+            // The index lists ids newest first, which is creation order, so only createdAt can be served from it;
+            // the fallback sorts by id as well so pages don't shift between the two paths.
+            PlaceCursor.SortKey sortKey = sortKey(sortBy);
+            Optional<List<Long>> available = sortKey == PlaceCursor.SortKey.CREATED_AT
+                ? placeAvailabilityService.findAvailablePlaceIds(cityId, minGuests, checkIn, checkOut)
+                : Optional.empty();
+            Sort sort = sortKey == PlaceCursor.SortKey.CREATED_AT
+                ? Sort.by(direction, "id")
+                : Sort.by(direction, sortKey.getProperty()).and(Sort.by(direction, "id"));
+            Pageable sorted = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), sort);
+            if (available.isPresent()) {
+                List<Long> ids = new ArrayList<>(available.get());
+                if (direction == Sort.Direction.ASC) {
+                    Collections.reverse(ids);
+                }
+                places = toPage(ids, pageable, currentUser);
+            } else if (cityId != null) {
+                places = placeListAssembler.toPage(
+                    placeRepository.findAvailablePlacesForDates(cityId, minGuests, checkIn, checkOut, PlaceStatus.ACTIVE, sorted),
+                    currentUser);
+            } else {
+                places = placeListAssembler.toPage(
+                    placeRepository.findAllAvailablePlacesForDates(minGuests, checkIn, checkOut, PlaceStatus.ACTIVE, sorted),
+                    currentUser);
+            }
+        }
+        applyStayTotals(places.getContent(), checkIn, checkOut);
+        return places;
+    }
+
+    private void applyStayTotals(List<PlaceListDto> places, LocalDate checkIn, LocalDate checkOut) {
+        long nights = ChronoUnit.DAYS.between(checkIn, checkOut);
+        if (nights > 0) {
+            places.forEach(place -> place.setTotalPrice(
+                StayPrice.of(place.getPricePerNight(), place.getCleaningFee(), nights).getTotalPrice()));
+        }
+    }
+
+    private Page<PlaceListDto> toPage(Page<Long> ids, User currentUser) {
+        return new PageImpl<>(placeListAssembler.toListByIds(ids.getContent(), currentUser),
+            ids.getPageable(), ids.getTotalElements());
+    }
+
+    private Page<PlaceListDto> toPage(List<Long> ids, Pageable pageable, User currentUser) {
+        List<Long> pageIds = ids.stream()
+            .skip(pageable.getOffset())
+            .limit(pageable.getPageSize())
             .collect(Collectors.toList());
+        return new PageImpl<>(placeListAssembler.toListByIds(pageIds, currentUser), pageable, ids.size());
+    }
+
+    public List<PlaceListDto> getPlacesByOwner(User owner) {
+        return placeListAssembler.toList(placeRepository.findByOwner(owner), owner);
     }
 
     @Transactional
@@ -166,6 +352,8 @@ public class PlaceService {
             .city(city)
             .district(request.getDistrict())
             .address(request.getAddress())
+            .latitude(request.getLatitude())
+            .longitude(request.getLongitude())
             .type(request.getType())
             .pricePerNight(request.getPricePerNight())
             .cleaningFee(request.getCleaningFee())
@@ -180,21 +368,27 @@ public class PlaceService {
             .status(Boolean.TRUE.equals(request.getIsDraft()) ? PlaceStatus.DRAFT : PlaceStatus.ACTIVE)
             .owner(owner)
             .amenities(amenities)
+            .amenityMask(AmenityMask.of(amenities))
             .build();
 
-        return placeRepository.save(place);
+        place = placeRepository.save(place);
+        publishChange(place, PlaceChangedEvent.Type.CREATED);
+        return place;
     }
 
     @Transactional
     public Place updatePlace(Long placeId, CreatePlaceRequest request, User owner) {
         Place place = findById(placeId);
         PermissionChecker.checkPlaceOwnership(owner, place);
+        Long previousCityId = place.getCity().getId();
 
         if (request.getName() != null) place.setName(request.getName());
         if (request.getDescription() != null) place.setDescription(request.getDescription());
         if (request.getCityId() != null) place.setCity(cityService.findById(request.getCityId()));
         if (request.getDistrict() != null) place.setDistrict(request.getDistrict());
         if (request.getAddress() != null) place.setAddress(request.getAddress());
+        if (request.getLatitude() != null) place.setLatitude(request.getLatitude());
+        if (request.getLongitude() != null) place.setLongitude(request.getLongitude());
         if (request.getType() != null) place.setType(request.getType());
         if (request.getPricePerNight() != null) place.setPricePerNight(request.getPricePerNight());
         if (request.getCleaningFee() != null) place.setCleaningFee(request.getCleaningFee());
@@ -208,10 +402,14 @@ public class PlaceService {
         if (request.getMaxStay() != null) place.setMaxStay(request.getMaxStay());
 
         if (request.getAmenityIds() != null) {
-            place.setAmenities(amenityService.findByIds(request.getAmenityIds()));
+            Set<Amenity> amenities = amenityService.findByIds(request.getAmenityIds());
+            place.setAmenities(amenities);
+            place.setAmenityMask(AmenityMask.of(amenities));
         }
 
-        return placeRepository.save(place);
+        place = placeRepository.save(place);
+        publishChange(place, previousCityId, PlaceChangedEvent.Type.UPDATED);
+        return place;
     }
 
     @Transactional
@@ -220,6 +418,7 @@ public class PlaceService {
         PermissionChecker.checkPlaceOwnership(owner, place);
         place.setStatus(status);
         placeRepository.save(place);
+        publishChange(place, PlaceChangedEvent.Type.STATUS_CHANGED);
     }
 
     @Transactional
@@ -231,5 +430,15 @@ public class PlaceService {
         images.forEach(image -> fileStorageService.deleteFile(image.getUrl()));
 
         placeRepository.delete(place);
+        publishChange(place, PlaceChangedEvent.Type.DELETED);
+    }
+
+    public void publishChange(Place place, PlaceChangedEvent.Type type) {
+        publishChange(place, place.getCity().getId(), type);
+    }
+
+    private void publishChange(Place place, Long previousCityId, PlaceChangedEvent.Type type) {
+        eventPublisher.publishEvent(new PlaceChangedEvent(
+            place.getId(), place.getCity().getId(), previousCityId, place.getOwner().getId(), type));
     }
 }
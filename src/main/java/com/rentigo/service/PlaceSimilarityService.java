@@ -0,0 +1,208 @@
+package com.rentigo.service;
+
+import com.rentigo.dto.PlaceListDto;
+import com.rentigo.entity.PlaceStatus;
+import com.rentigo.entity.User;
+import com.rentigo.event.FavoriteChangedEvent;
+import com.rentigo.event.PlaceChangedEvent;
+import com.rentigo.index.PlaceSimilarity;
+import com.rentigo.repository.FavoriteRepository;
+import com.rentigo.repository.PlaceNeighborRepository;
+import com.rentigo.repository.PlaceRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PlaceSimilarityService {
+    private static final int NEIGHBORS = 20;
+    private static final int CHUNK_SIZE = 64;
+    private static final int INSERT_BATCH_SIZE = 1000;
+    private static final long NEIGHBORS_LOCK = "place_neighbors".hashCode();
+    private static final String NEIGHBORS_EXIST = "SELECT EXISTS (SELECT 1 FROM place_neighbors)";
+
+    private final PlaceRepository placeRepository;
+    private final FavoriteRepository favoriteRepository;
+    private final PlaceNeighborRepository placeNeighborRepository;
+    private final PlaceListAssembler placeListAssembler;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    private final Set<Long> changedPlaces = ConcurrentHashMap.newKeySet();
+    // Features as of the last write, so incremental recomputes only reload the changed places.
+    private volatile Map<Long, PlaceSimilarity.Features> features;
+
+    public List<PlaceListDto> getSimilarPlaces(Long placeId, int limit, User currentUser) {
+        List<Long> ids = placeNeighborRepository.findNeighborIds(placeId,
+            PageRequest.of(0, Math.max(1, Math.min(limit, NEIGHBORS))));
+        return placeListAssembler.toListByIds(ids, currentUser).stream()
+            .filter(place -> place.getStatus() == PlaceStatus.ACTIVE)
+            .collect(Collectors.toList());
+    }
+
+    // Nodes restarting with neighbours already stored leave them to the nightly rebuild.
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildIfEmpty() {
+        if (Boolean.TRUE.equals(jdbcTemplate.queryForObject(NEIGHBORS_EXIST, Boolean.class))) {
+            log.info("Similar places already computed, skipping startup rebuild");
+            return;
+        }
+        rebuild();
+    }
+
+    @Scheduled(cron = "0 30 3 * * *")
+    public synchronized void rebuild() {
+        long start = System.currentTimeMillis();
+        Integer rebuilt = transactionTemplate.execute(status -> {
+            if (!tryLock()) {
+                return null;
+            }
+            changedPlaces.clear();
+            Map<Long, PlaceSimilarity.Features> current = toFeatures(placeRepository.findSimilarityRowsByStatus(PlaceStatus.ACTIVE));
+            PlaceSimilarity similarity = new PlaceSimilarity(new ArrayList<>(current.values()),
+                groupByUser(favoriteRepository.findUserPlacePairs()));
+            Map<Long, List<PlaceSimilarity.Neighbor>> neighbors = computeNeighbors(similarity, similarity.getPlaces());
+            placeNeighborRepository.deleteAllInBatch();
+            insert(neighbors);
+            features = current;
+            return neighbors.size();
+        });
+        if (rebuilt == null) {
+            log.info("Similar places rebuild skipped, another node is writing neighbours");
+            return;
+        }
+        log.info("Similar places rebuilt for {} places in {} ms", rebuilt, System.currentTimeMillis() - start);
+    }
+
+    // Recomputes changed places and every place listing one of them; a changed place that should newly
+    // appear in an unrelated list waits for the nightly rebuild. Only the changed places' features and the
+    // favorites of users who saved an affected place are read.
+    @Scheduled(fixedDelay = 60000, initialDelay = 60000)
+    public synchronized void recomputeChanged() {
+        if (changedPlaces.isEmpty()) {
+            return;
+        }
+        Set<Long> changed = new HashSet<>(changedPlaces);
+        changedPlaces.removeAll(changed);
+
+        Integer recomputed = transactionTemplate.execute(status -> {
+            if (!tryLock()) {
+                return null;
+            }
+            Map<Long, PlaceSimilarity.Features> current = features != null
+                ? new LinkedHashMap<>(features)
+                : toFeatures(placeRepository.findSimilarityRowsByStatus(PlaceStatus.ACTIVE));
+            changed.forEach(current::remove);
+            current.putAll(toFeatures(placeRepository.findSimilarityRowsByStatusAndIds(PlaceStatus.ACTIVE, changed)));
+
+            Set<Long> affected = new HashSet<>(changed);
+            affected.addAll(placeNeighborRepository.findPlaceIdsWithNeighbors(changed));
+            PlaceSimilarity similarity = new PlaceSimilarity(new ArrayList<>(current.values()),
+                groupByUser(favoriteRepository.findUserPlacePairsOfUsersSaving(affected)));
+            List<PlaceSimilarity.Features> targets = affected.stream()
+                .map(current::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+            Map<Long, List<PlaceSimilarity.Neighbor>> neighbors = computeNeighbors(similarity, targets);
+            placeNeighborRepository.deleteByPlaceIds(affected);
+            insert(neighbors);
+            features = current;
+            return neighbors.size();
+        });
+        if (recomputed == null) {
+            changedPlaces.addAll(changed);
+            return;
+        }
+        log.debug("Similar places recomputed for {} places", recomputed);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPlaceChanged(PlaceChangedEvent event) {
+        if (event.getType() != PlaceChangedEvent.Type.IMAGES_CHANGED) {
+            changedPlaces.add(event.getPlaceId());
+        }
+    }
+
+    // A saved or removed favorite changes the co-favorite counts between that place and the user's other
+    // favorites, which are sampled newest first like in PlaceSimilarity.
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onFavoriteChanged(FavoriteChangedEvent event) {
+        changedPlaces.add(event.getPlaceId());
+        changedPlaces.addAll(favoriteRepository.findRecentPlaceIdsByUserId(event.getUserId(),
+            PageRequest.of(0, PlaceSimilarity.MAX_FAVORITES_PER_USER)));
+    }
+
+    // Held until the surrounding transaction ends, so two nodes never rewrite place_neighbors at once.
+    private boolean tryLock() {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject("SELECT pg_try_advisory_xact_lock(?)", Boolean.class, NEIGHBORS_LOCK));
+    }
+
+    private static Map<Long, PlaceSimilarity.Features> toFeatures(List<Object[]> rows) {
+        Map<Long, PlaceSimilarity.Features> features = new LinkedHashMap<>();
+        for (Object[] row : rows) {
+            features.put((Long) row[0], new PlaceSimilarity.Features(
+                (Long) row[0],
+                ((Enum<?>) row[1]).ordinal(),
+                (Long) row[2],
+                ((BigDecimal) row[3]).doubleValue(),
+                (Integer) row[4],
+                row[5] != null ? (Long) row[5] : 0L,
+                row[6] != null ? ((BigDecimal) row[6]).doubleValue() : 0));
+        }
+        return features;
+    }
+
+    private static Collection<List<Long>> groupByUser(List<Object[]> pairs) {
+        Map<Long, List<Long>> favoritesByUser = new LinkedHashMap<>();
+        for (Object[] row : pairs) {
+            favoritesByUser.computeIfAbsent((Long) row[0], id -> new ArrayList<>()).add((Long) row[1]);
+        }
+        return favoritesByUser.values();
+    }
+
+    private Map<Long, List<PlaceSimilarity.Neighbor>> computeNeighbors(PlaceSimilarity similarity, List<PlaceSimilarity.Features> targets) {
+        Map<Long, List<PlaceSimilarity.Neighbor>> neighbors = new ConcurrentHashMap<>();
+        IntStream.range(0, (targets.size() + CHUNK_SIZE - 1) / CHUNK_SIZE)
+            .parallel()
+            .forEach(chunk -> targets.subList(chunk * CHUNK_SIZE, Math.min(targets.size(), (chunk + 1) * CHUNK_SIZE))
+                .forEach(place -> neighbors.put(place.getId(), similarity.nearest(place, NEIGHBORS))));
+        return neighbors;
+    }
+
+    private void insert(Map<Long, List<PlaceSimilarity.Neighbor>> neighbors) {
+        List<Object[]> rows = new ArrayList<>();
+        neighbors.forEach((placeId, list) -> {
+            for (int i = 0; i < list.size(); i++) {
+                rows.add(new Object[]{placeId, i, list.get(i).getPlaceId(), (float) list.get(i).getScore()});
+            }
+        });
+        jdbcTemplate.batchUpdate("INSERT INTO place_neighbors (place_id, ordinal, neighbor_id, score) VALUES (?, ?, ?, ?)",
+            rows, INSERT_BATCH_SIZE, (statement, row) -> {
+                statement.setLong(1, (Long) row[0]);
+                statement.setInt(2, (Integer) row[1]);
+                statement.setLong(3, (Long) row[2]);
+                statement.setFloat(4, (Float) row[3]);
+            });
+    }
+}
@@ -0,0 +1,169 @@
+package com.rentigo.service;
+
+import com.rentigo.dto.PlaceListDto;
+import com.rentigo.entity.User;
+import com.rentigo.event.FavoriteChangedEvent;
+import com.rentigo.event.ReservationChangedEvent;
+import com.rentigo.repository.PlaceActivityRepository;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+// Hot-path events only bump striped counters. A minute job flushes deltas into hourly place_activity
+// buckets and rebuilds the per-city top lists from the decayed rollup.
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PlaceTrendingService {
+    private static final int TOP_K = 20;
+    private static final int WINDOW_DAYS = 7;
+    private static final double HALF_LIFE_HOURS = 24;
+    private static final double VIEW_WEIGHT = 1;
+    private static final double FAVORITE_WEIGHT = 5;
+    private static final double RESERVATION_WEIGHT = 20;
+    private static final int FLUSH_BATCH_SIZE = 500;
+
+    private final PlaceActivityRepository placeActivityRepository;
+    private final PlaceListAssembler placeListAssembler;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    private final Map<Long, Counters> counters = new ConcurrentHashMap<>();
+    private volatile Map<Long, List<Long>> trendingByCity = Map.of();
+    private volatile List<Long> trending = List.of();
+
+    public void recordView(Long placeId) {
+        counters.computeIfAbsent(placeId, id -> new Counters()).views.increment();
+    }
+
+    // Counted after commit, so a favorite whose transaction rolls back never scores.
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onFavoriteChanged(FavoriteChangedEvent event) {
+        if (event.getType() == FavoriteChangedEvent.Type.ADDED) {
+            counters.computeIfAbsent(event.getPlaceId(), id -> new Counters()).favorites.increment();
+        }
+    }
+
+    @TransactionalEventListener
+    public void onReservationChanged(ReservationChangedEvent event) {
+        if (event.getType() == ReservationChangedEvent.Type.CREATED) {
+            counters.computeIfAbsent(event.getPlaceId(), id -> new Counters()).reservations.increment();
+        }
+    }
+
+    public List<PlaceListDto> getTrendingPlaces(Long cityId, int limit, User currentUser) {
+        List<Long> ids = cityId != null ? trendingByCity.getOrDefault(cityId, List.of()) : trending;
+        return placeListAssembler.toListByIds(ids.subList(0, Math.min(Math.max(limit, 1), ids.size())), currentUser);
+    }
+
+    @Scheduled(fixedDelay = 60000, initialDelay = 5000)
+    public void refresh() {
+        flush();
+
+        PriorityQueue<Scored> global = new PriorityQueue<>(Comparator.comparingDouble(Scored::getScore));
+        Map<Long, PriorityQueue<Scored>> byCity = new HashMap<>();
+        List<Object[]> rows = placeActivityRepository.findDecayedScores(LocalDateTime.now().minusDays(WINDOW_DAYS),
+            VIEW_WEIGHT, FAVORITE_WEIGHT, RESERVATION_WEIGHT, HALF_LIFE_HOURS);
+        for (Object[] row : rows) {
+            Scored scored = new Scored(((Number) row[0]).longValue(), ((Number) row[2]).doubleValue());
+            offer(global, scored);
+            offer(byCity.computeIfAbsent(((Number) row[1]).longValue(), id -> new PriorityQueue<>(
+                Comparator.comparingDouble(Scored::getScore))), scored);
+        }
+
+        trending = ranked(global);
+        trendingByCity = byCity.entrySet().stream()
+            .collect(Collectors.toMap(Map.Entry::getKey, entry -> ranked(entry.getValue())));
+    }
+
+    @Scheduled(cron = "0 15 4 * * *")
+    @Transactional
+    public void pruneRollup() {
+        int removed = placeActivityRepository.deleteOlderThan(LocalDateTime.now().minusDays(WINDOW_DAYS));
+        log.info("Pruned {} place activity buckets", removed);
+    }
+
+    // Counters are never reset; each flush writes the growth since the previous one, so concurrent
+    // increments are never lost. The batch commits as a whole before the marks advance, so a failed
+    // flush is retried in full instead of re-adding the rows that made it in.
+    private void flush() {
+        List<Object[]> deltas = new ArrayList<>();
+        Map<Counters, long[]> flushed = new HashMap<>();
+        counters.forEach((placeId, counter) -> {
+            long views = counter.views.sum() - counter.flushedViews;
+            long favorites = counter.favorites.sum() - counter.flushedFavorites;
+            long reservations = counter.reservations.sum() - counter.flushedReservations;
+            if (views + favorites + reservations > 0) {
+                deltas.add(new Object[]{placeId, views, favorites, reservations});
+                flushed.put(counter, new long[]{views, favorites, reservations});
+            }
+        });
+        if (deltas.isEmpty()) {
+            return;
+        }
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate("INSERT INTO place_activity (place_id, bucket, views, favorites, reservations) " +
+                "VALUES (?, date_trunc('hour', now()), ?, ?, ?) ON CONFLICT (place_id, bucket) DO UPDATE SET " +
+                "views = place_activity.views + EXCLUDED.views, favorites = place_activity.favorites + EXCLUDED.favorites, " +
+                "reservations = place_activity.reservations + EXCLUDED.reservations",
+            deltas, FLUSH_BATCH_SIZE, (statement, row) -> {
+                statement.setLong(1, (Long) row[0]);
+                statement.setLong(2, (Long) row[1]);
+                statement.setLong(3, (Long) row[2]);
+                statement.setLong(4, (Long) row[3]);
+            }));
+        flushed.forEach((counter, delta) -> {
+            counter.flushedViews += delta[0];
+            counter.flushedFavorites += delta[1];
+            counter.flushedReservations += delta[2];
+        });
+    }
+
+    private static void offer(PriorityQueue<Scored> top, Scored scored) {
+        if (top.size() < TOP_K) {
+            top.add(scored);
+        } else if (scored.score > top.peek().score) {
+            top.poll();
+            top.add(scored);
+        }
+    }
+
+    private static List<Long> ranked(PriorityQueue<Scored> top) {
+        return top.stream()
+            .sorted(Comparator.comparingDouble(Scored::getScore).reversed())
+            .map(Scored::getPlaceId)
+            .collect(Collectors.toUnmodifiableList());
+    }
+
+    private static final class Counters {
+        private final LongAdder views = new LongAdder();
+        private final LongAdder favorites = new LongAdder();
+        private final LongAdder reservations = new LongAdder();
+        private long flushedViews;
+        private long flushedFavorites;
+        private long flushedReservations;
+    }
+
+    @Getter
+    @AllArgsConstructor
+    private static final class Scored {
+        private final long placeId;
+        private final double score;
+    }
+}
@@ -0,0 +1,151 @@
+package com.rentigo.service;
+
+import com.rentigo.entity.Place;
+import com.rentigo.entity.Reservation;
+import com.rentigo.entity.ReservationStatus;
+import com.rentigo.entity.User;
+import com.rentigo.event.ReservationChangedEvent;
+import com.rentigo.index.TimingWheel;
+import com.rentigo.repository.ReservationRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.stream.Collectors;
+
+// Batch status transitions. Statements lock their rows with SKIP LOCKED so several nodes can run the jobs
+// at once without waiting on, or transitioning, the same rows; RETURNING carries what the notifications need.
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ReservationLifecycleService {
+    private static final int CHUNK_SIZE = 1000;
+    private static final long TICK_MILLIS = 1000;
+
+    private static final String NOTIFICATION_COLUMNS =
+        "RETURNING r.id, r.reservation_number, r.place_id, r.check_in, r.check_out, r.total_price, " +
+        "g.email, g.first_name, g.last_name, h.email, h.first_name, p.name";
+
+    private static final String COMPLETE_FINISHED =
+        "UPDATE reservations r SET status = 'COMPLETED' " +
+        "FROM places p, users g, users h " +
+        "WHERE r.id IN (SELECT id FROM reservations WHERE status = 'CONFIRMED' AND check_out < ? " +
+        "LIMIT ? FOR UPDATE SKIP LOCKED) " +
+        "AND p.id = r.place_id AND g.id = r.user_id AND h.id = p.owner_id " +
+        NOTIFICATION_COLUMNS;
+
+    private static final String EXPIRE_HOLDS =
+        "UPDATE reservations r SET status = 'CANCELLED' " +
+        "FROM places p, users g, users h " +
+        "WHERE r.id IN (SELECT id FROM reservations WHERE id = ANY(CAST(? AS bigint[])) AND status = 'PENDING' " +
+        "FOR UPDATE SKIP LOCKED) " +
+        "AND p.id = r.place_id AND g.id = r.user_id AND h.id = p.owner_id " +
+        NOTIFICATION_COLUMNS;
+
+    private final ReservationRepository reservationRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final NotificationService notificationService;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${reservations.pending-hold-ttl-hours:48}")
+    private long pendingHoldTtlHours;
+
+    private final TimingWheel pendingHolds = new TimingWheel(TICK_MILLIS, System.currentTimeMillis());
+
+    @Scheduled(cron = "0 10 * * * *")
+    public void completeFinished() {
+        Date today = Date.valueOf(LocalDate.now());
+        long completed = 0;
+        List<Reservation> chunk;
+        do {
+            chunk = transition(ReservationStatus.COMPLETED, "COMPLETED", COMPLETE_FINISHED, today, CHUNK_SIZE);
+            completed += chunk.size();
+        } while (chunk.size() == CHUNK_SIZE);
+
+        if (completed > 0) {
+            log.info("Completed {} finished reservations", completed);
+        }
+    }
+
+    // Holds made on another node reach this wheel through the hourly resync; scheduling is idempotent.
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "0 40 * * * *")
+    public void loadPendingHolds() {
+        List<Object[]> holds = reservationRepository.findPendingHolds();
+        for (Object[] row : holds) {
+            pendingHolds.schedule((Long) row[0], holdDeadline((LocalDateTime) row[1]));
+        }
+        log.info("Tracking {} pending reservation holds", pendingHolds.size());
+    }
+
+    @TransactionalEventListener
+    public void onReservationChanged(ReservationChangedEvent event) {
+        if (event.getType() == ReservationChangedEvent.Type.CREATED && event.getStatus() == ReservationStatus.PENDING) {
+            pendingHolds.schedule(event.getReservationId(), holdDeadline(LocalDateTime.now()));
+        } else if (event.getStatus() != ReservationStatus.PENDING || event.getType() == ReservationChangedEvent.Type.DELETED) {
+            pendingHolds.cancel(event.getReservationId());
+        }
+    }
+
+    @Scheduled(fixedDelay = TICK_MILLIS)
+    public void expirePendingHolds() {
+        List<Long> expired = pendingHolds.advance(System.currentTimeMillis());
+        for (int from = 0; from < expired.size(); from += CHUNK_SIZE) {
+            String ids = expired.subList(from, Math.min(expired.size(), from + CHUNK_SIZE)).stream()
+                .map(String::valueOf)
+                .collect(Collectors.joining(",", "{", "}"));
+            List<Reservation> chunk = transition(ReservationStatus.CANCELLED, "EXPIRED", EXPIRE_HOLDS, ids);
+            if (!chunk.isEmpty()) {
+                log.info("Expired {} pending reservation holds", chunk.size());
+            }
+        }
+    }
+
+    private List<Reservation> transition(ReservationStatus status, String action, String sql, Object... args) {
+        return transactionTemplate.execute(tx -> {
+            List<Reservation> rows = jdbcTemplate.query(sql, notificationRow(status), args);
+            rows.forEach(r -> eventPublisher.publishEvent(new ReservationChangedEvent(r.getId(),
+                r.getPlace().getId(), r.getCheckIn(), r.getCheckOut(), r.getStatus(),
+                ReservationChangedEvent.Type.STATUS_CHANGED)));
+            if (!rows.isEmpty()) {
+                notificationService.sendReservationNotifications(rows, action);
+            }
+            return rows;
+        });
+    }
+
+    private long holdDeadline(LocalDateTime createdAt) {
+        return createdAt.plusHours(pendingHoldTtlHours).atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private static RowMapper<Reservation> notificationRow(ReservationStatus status) {
+        return (rs, rowNum) -> Reservation.builder()
+            .id(rs.getLong(1))
+            .reservationNumber(rs.getString(2))
+            .place(Place.builder()
+                .id(rs.getLong(3))
+                .name(rs.getString(12))
+                .owner(User.builder().email(rs.getString(10)).firstName(rs.getString(11)).build())
+                .build())
+            .checkIn(rs.getDate(4).toLocalDate())
+            .checkOut(rs.getDate(5).toLocalDate())
+            .totalPrice(rs.getBigDecimal(6))
+            .user(User.builder().email(rs.getString(7)).firstName(rs.getString(8)).lastName(rs.getString(9)).build())
+            .status(status)
+            .build();
+    }
+}
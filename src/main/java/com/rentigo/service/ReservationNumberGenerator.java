@@ -0,0 +1,5 @@
+package com.rentigo.service;
+
+public interface ReservationNumberGenerator {
+    String next();
+}
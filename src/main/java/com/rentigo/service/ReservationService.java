@@ -1,37 +1,90 @@
 package com.rentigo.service;
 
+import com.rentigo.dto.PlaceListDto;
 import com.rentigo.dto.ReservationDto;
 import com.rentigo.dto.request.CreateReservationRequest;
 import com.rentigo.entity.*;
+import com.rentigo.event.ReservationChangedEvent;
 import com.rentigo.exception.BadRequestException;
+import com.rentigo.exception.ConflictException;
 import com.rentigo.exception.ForbiddenException;
 import com.rentigo.exception.ResourceNotFoundException;
+import com.rentigo.repository.FavoriteRepository;
 import com.rentigo.repository.ReservationRepository;
+import com.rentigo.util.DatabaseErrors;
+import com.rentigo.util.StayPrice;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import java.math.BigDecimal;
-import java.math.RoundingMode;
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class ReservationService {
     private final ReservationRepository reservationRepository;
+    private final FavoriteRepository favoriteRepository;
     private final PlaceService placeService;
+    private final PlaceListAssembler placeListAssembler;
     private final UserService userService;
     private final NotificationService notificationService;
-
-    private static final BigDecimal SERVICE_FEE_RATE = new BigDecimal("0.05");
+    private final ReservationTransitionService reservationTransitionService;
+    private final ReservationNumberGenerator reservationNumberGenerator;
+    private final ApplicationEventPublisher eventPublisher;
 
     public ReservationDto toDto(Reservation reservation) {
+        return toDtos(List.of(reservation)).get(0);
+    }
+
+    // Cards load in one query and favorites in another, keyed by each reservation's guest.
+    public List<ReservationDto> toDtos(List<Reservation> reservations) {
+        if (reservations.isEmpty()) {
+            return List.of();
+        }
+        Set<Long> placeIds = reservations.stream()
+            .map(r -> r.getPlace().getId())
+            .collect(Collectors.toCollection(LinkedHashSet::new));
+        Set<Long> guestIds = reservations.stream()
+            .map(r -> r.getUser().getId())
+            .collect(Collectors.toSet());
+
+        Map<Long, PlaceListDto> places = placeListAssembler.toListByIds(new ArrayList<>(placeIds), null).stream()
+            .collect(Collectors.toMap(PlaceListDto::getId, place -> place));
+        Set<List<Long>> favorites = favoriteRepository.findUserPlacePairs(guestIds, placeIds).stream()
+            .map(row -> List.of((Long) row[0], (Long) row[1]))
+            .collect(Collectors.toSet());
+
+        return reservations.stream()
+            .map(r -> {
+                PlaceListDto place = places.get(r.getPlace().getId());
+                return toDto(r, place == null ? null : place.toBuilder()
+                    .isFavorite(favorites.contains(List.of(r.getUser().getId(), place.getId())))
+                    .build());
+            })
+            .collect(Collectors.toList());
+    }
+
+    public Page<ReservationDto> toDtoPage(Page<Reservation> page) {
+        return new PageImpl<>(toDtos(page.getContent()), page.getPageable(), page.getTotalElements());
+    }
+
+    private ReservationDto toDto(Reservation reservation, PlaceListDto place) {
         return ReservationDto.builder()
             .id(reservation.getId())
             .reservationNumber(reservation.getReservationNumber())
-            .place(placeService.toListDto(reservation.getPlace(), reservation.getUser()))
+            .place(place)
             .user(userService.toDto(reservation.getUser()))
             .checkIn(reservation.getCheckIn())
             .checkOut(reservation.getCheckOut())
@@ -52,33 +105,43 @@ public class ReservationService {
     }
 
     public List<ReservationDto> getUserReservations(User user) {
-        return reservationRepository.findByUser(user).stream()
-            .map(this::toDto)
-            .collect(Collectors.toList());
+        return toDtos(reservationRepository.findByUser(user));
     }
 
     public List<ReservationDto> getUpcomingReservations(User user) {
-        return reservationRepository.findUpcomingReservations(user).stream()
-            .map(this::toDto)
-            .collect(Collectors.toList());
+        return toDtos(reservationRepository.findUpcomingReservations(user));
     }
 
     public List<ReservationDto> getPastReservations(User user) {
-        return reservationRepository.findPastReservations(user).stream()
-            .map(this::toDto)
-            .collect(Collectors.toList());
+        return toDtos(reservationRepository.findPastReservations(user));
     }
 
     public List<ReservationDto> getCancelledReservations(User user) {
-        return reservationRepository.findByUserAndStatus(user, ReservationStatus.CANCELLED).stream()
-            .map(this::toDto)
-            .collect(Collectors.toList());
+        return toDtos(reservationRepository.findByUserAndStatus(user, ReservationStatus.CANCELLED));
     }
 
     public List<ReservationDto> getHostReservations(User host) {
-        return reservationRepository.findByPlaceOwner(host).stream()
-            .map(this::toDto)
-            .collect(Collectors.toList());
+        return toDtos(reservationRepository.findByPlaceOwner(host));
+    }
+
+    public Page<ReservationDto> getUserReservations(User user, Pageable pageable) {
+        return toDtoPage(reservationRepository.findByUser(user, pageable));
+    }
+
+    public Page<ReservationDto> getUpcomingReservations(User user, Pageable pageable) {
+        return toDtoPage(reservationRepository.findUpcomingReservations(user, pageable));
+    }
+
+    public Page<ReservationDto> getPastReservations(User user, Pageable pageable) {
+        return toDtoPage(reservationRepository.findPastReservations(user, pageable));
+    }
+
+    public Page<ReservationDto> getCancelledReservations(User user, Pageable pageable) {
+        return toDtoPage(reservationRepository.findByUserAndStatus(user, ReservationStatus.CANCELLED, pageable));
+    }
+
+    public Page<ReservationDto> getHostReservations(User host, Pageable pageable) {
+        return toDtoPage(reservationRepository.findByPlaceOwner(host, pageable));
     }
 
     public List<ReservationDto> getPlaceReservations(Long placeId, User owner) {
@@ -86,9 +149,7 @@ public class ReservationService {
         if (!place.getOwner().getId().equals(owner.getId())) {
             throw new ForbiddenException("Brak uprawnień");
         }
-        return reservationRepository.findByPlace(place).stream()
-            .map(this::toDto)
-            .collect(Collectors.toList());
+        return toDtos(reservationRepository.findByPlace(place));
     }
 
     @Transactional
@@ -122,35 +183,41 @@ public class ReservationService {
         );
 
         if (!conflicts.isEmpty()) {
-            throw new BadRequestException("Wybrane terminy są już zarezerwowane");
+            throw new ConflictException(DatabaseErrors.RESERVATION_OVERLAP_MESSAGE);
         }
 
-        BigDecimal nightsPrice = place.getPricePerNight().multiply(BigDecimal.valueOf(nights));
-        BigDecimal cleaningFee = place.getCleaningFee() != null ? place.getCleaningFee() : BigDecimal.ZERO;
-        BigDecimal serviceFee = nightsPrice.multiply(SERVICE_FEE_RATE).setScale(2, RoundingMode.HALF_UP);
-        BigDecimal totalPrice = nightsPrice.add(cleaningFee).add(serviceFee);
+        StayPrice price = StayPrice.of(place.getPricePerNight(), place.getCleaningFee(), nights);
 
         Reservation reservation = Reservation.builder()
+            .reservationNumber(reservationNumberGenerator.next())
             .place(place)
             .user(user)
             .checkIn(request.getCheckIn())
             .checkOut(request.getCheckOut())
             .guests(request.getGuests())
-            .nightsPrice(nightsPrice)
-            .cleaningFee(cleaningFee)
-            .serviceFee(serviceFee)
-            .totalPrice(totalPrice)
+            .nightsPrice(price.getNightsPrice())
+            .cleaningFee(price.getCleaningFee())
+            .serviceFee(price.getServiceFee())
+            .totalPrice(price.getTotalPrice())
             .status(ReservationStatus.PENDING)
             .build();
 
-        reservation = reservationRepository.save(reservation);
+        // The pre-check above is racy; reservations_no_overlap decides between concurrent bookings.
+        try {
+            reservation = reservationRepository.saveAndFlush(reservation);
+        } catch (DataIntegrityViolationException e) {
+            if (DatabaseErrors.isExclusionViolation(e)) {
+                throw new ConflictException(DatabaseErrors.RESERVATION_OVERLAP_MESSAGE);
+            }
+            throw e;
+        }
+        publishChange(reservation, ReservationChangedEvent.Type.CREATED);
 
         notificationService.sendReservationNotification(reservation, "CREATED");
 
         return reservation;
     }
 
-    @Transactional
     public Reservation confirmReservation(Long reservationId, User host) {
         Reservation reservation = findById(reservationId);
 
@@ -158,19 +225,11 @@ public class ReservationService {
             throw new ForbiddenException("Brak uprawnień");
         }
 
-        if (reservation.getStatus() != ReservationStatus.PENDING) {
-            throw new BadRequestException("Rezerwacja nie może być potwierdzona");
-        }
-
-        reservation.setStatus(ReservationStatus.CONFIRMED);
-        reservation = reservationRepository.save(reservation);
-
-        notificationService.sendReservationNotification(reservation, "CONFIRMED");
+        reservationTransitionService.apply(reservation, ReservationTransition.CONFIRM);
 
         return reservation;
     }
 
-    @Transactional
     public Reservation cancelReservation(Long reservationId, User user) {
         Reservation reservation = findById(reservationId);
 
@@ -181,15 +240,7 @@ public class ReservationService {
             throw new ForbiddenException("Brak uprawnień");
         }
 
-        if (reservation.getStatus() == ReservationStatus.COMPLETED ||
-            reservation.getStatus() == ReservationStatus.CANCELLED) {
-            throw new BadRequestException("Rezerwacja nie może być anulowana");
-        }
-
-        reservation.setStatus(ReservationStatus.CANCELLED);
-        reservation = reservationRepository.save(reservation);
-
-        notificationService.sendReservationNotification(reservation, "CANCELLED");
+        reservationTransitionService.apply(reservation, ReservationTransition.CANCEL);
 
         return reservation;
     }
@@ -212,5 +263,17 @@ public class ReservationService {
 
         Reservation reservation = findById(reservationId);
         reservationRepository.delete(reservation);
+        publishChange(reservation, ReservationChangedEvent.Type.DELETED);
+    }
+
+    private void publishChange(Reservation reservation, ReservationChangedEvent.Type type) {
+        eventPublisher.publishEvent(new ReservationChangedEvent(
+            reservation.getId(),
+            reservation.getPlace().getId(),
+            reservation.getCheckIn(),
+            reservation.getCheckOut(),
+            reservation.getStatus(),
+            type
+        ));
     }
 }
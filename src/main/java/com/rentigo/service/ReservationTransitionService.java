@@ -0,0 +1,102 @@
+package com.rentigo.service;
+
+import com.rentigo.dto.TransitionStatsDto;
+import com.rentigo.entity.Reservation;
+import com.rentigo.entity.ReservationStatus;
+import com.rentigo.entity.ReservationTransition;
+import com.rentigo.event.ReservationChangedEvent;
+import com.rentigo.exception.BadRequestException;
+import com.rentigo.exception.ConflictException;
+import com.rentigo.exception.ResourceNotFoundException;
+import com.rentigo.repository.ReservationRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+// Each attempt is a compare-and-set UPDATE on the status last read, in its own short transaction, so the
+// row is locked only for that statement. A lost race re-reads the status and retries if still allowed.
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ReservationTransitionService {
+    private static final int MAX_ATTEMPTS = 3;
+
+    private final ReservationRepository reservationRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final NotificationService notificationService;
+
+    private final Map<ReservationTransition, Counters> counters = Arrays.stream(ReservationTransition.values())
+        .collect(Collectors.toMap(transition -> transition, transition -> new Counters(), (a, b) -> a,
+            () -> new EnumMap<>(ReservationTransition.class)));
+
+    // Returns the status the reservation left; the entity is updated to the target status.
+    public ReservationStatus apply(Reservation reservation, ReservationTransition transition) {
+        Counters counter = counters.get(transition);
+        ReservationStatus observed = reservation.getStatus();
+        for (int attempt = 1; attempt <= MAX_ATTEMPTS; attempt++) {
+            counter.attempts.increment();
+            if (!transition.allows(observed)) {
+                counter.rejected.increment();
+                throw new BadRequestException(transition.getRejection());
+            }
+            ReservationStatus from = observed;
+            Boolean applied = transactionTemplate.execute(status -> {
+                if (reservationRepository.updateStatus(reservation.getId(), from, transition.getTarget()) == 0) {
+                    return false;
+                }
+                eventPublisher.publishEvent(new ReservationChangedEvent(reservation.getId(),
+                    reservation.getPlace().getId(), reservation.getCheckIn(), reservation.getCheckOut(),
+                    transition.getTarget(), ReservationChangedEvent.Type.STATUS_CHANGED));
+                notificationService.sendReservationNotification(reservation, transition.getTarget().name());
+                return true;
+            });
+            if (Boolean.TRUE.equals(applied)) {
+                counter.applied.increment();
+                reservation.setStatus(transition.getTarget());
+                return from;
+            }
+            counter.conflicts.increment();
+            observed = reservationRepository.findStatusById(reservation.getId())
+                .orElseThrow(() -> new ResourceNotFoundException("Rezerwacja nie znaleziona"));
+        }
+        counter.exhausted.increment();
+        log.warn("Reservation {} transition {} gave up after {} attempts", reservation.getId(), transition, MAX_ATTEMPTS);
+        throw new ConflictException("Rezerwacja została równocześnie zmieniona, spróbuj ponownie");
+    }
+
+    public List<TransitionStatsDto> getStats() {
+        return counters.entrySet().stream()
+            .map(entry -> {
+                Counters counter = entry.getValue();
+                long attempts = counter.attempts.sum();
+                long conflicts = counter.conflicts.sum();
+                return TransitionStatsDto.builder()
+                    .transition(entry.getKey())
+                    .attempts(attempts)
+                    .applied(counter.applied.sum())
+                    .conflicts(conflicts)
+                    .rejected(counter.rejected.sum())
+                    .exhausted(counter.exhausted.sum())
+                    .conflictRate(attempts > 0 ? (double) conflicts / attempts : 0)
+                    .build();
+            })
+            .collect(Collectors.toList());
+    }
+
+    private static final class Counters {
+        private final LongAdder attempts = new LongAdder();
+        private final LongAdder applied = new LongAdder();
+        private final LongAdder conflicts = new LongAdder();
+        private final LongAdder rejected = new LongAdder();
+        private final LongAdder exhausted = new LongAdder();
+    }
+}
@@ -7,6 +7,7 @@ import com.rentigo.entity.Place;
 import com.rentigo.entity.Review;
 import com.rentigo.entity.ReservationStatus;
 import com.rentigo.entity.User;
+import com.rentigo.event.PlaceChangedEvent;
 import com.rentigo.exception.BadRequestException;
 import com.rentigo.exception.ConflictException;
 import com.rentigo.exception.ResourceNotFoundException;
@@ -124,5 +125,6 @@ public class ReviewService {
         place.setRating(avgRating != null ? avgRating.setScale(2, RoundingMode.HALF_UP) : BigDecimal.ZERO);
         place.setReviewCount((int) count);
         placeRepository.save(place);
+        placeService.publishChange(place, PlaceChangedEvent.Type.RATING_CHANGED);
     }
 }
@@ -0,0 +1,137 @@
+package com.rentigo.service;
+
+import com.rentigo.dto.SuggestionDto;
+import com.rentigo.entity.City;
+import com.rentigo.entity.Place;
+import com.rentigo.entity.PlaceStatus;
+import com.rentigo.event.PlaceChangedEvent;
+import com.rentigo.index.SuggestionTrie;
+import com.rentigo.repository.CityRepository;
+import com.rentigo.repository.PlaceRepository;
+import com.rentigo.util.SearchText;
+import lombok.AllArgsConstructor;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SearchSuggestService {
+    private static final int TOP_K = 10;
+    private static final String CITY = "CITY";
+    private static final String DISTRICT = "DISTRICT";
+    private static final String PLACE = "PLACE";
+
+    private final CityRepository cityRepository;
+    private final PlaceRepository placeRepository;
+    private final SuggestionTrie trie = new SuggestionTrie(TOP_K);
+    private final Map<Long, String> cityNames = new HashMap<>();
+    private final Map<Long, Integer> cityCounts = new HashMap<>();
+    private final Map<String, Integer> districtCounts = new HashMap<>();
+    private final Map<Long, Listing> listings = new HashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        long start = System.currentTimeMillis();
+        trie.clear();
+        cityNames.clear();
+        cityCounts.clear();
+        districtCounts.clear();
+        listings.clear();
+
+        for (City city : cityRepository.findAll()) {
+            cityNames.put(city.getId(), city.getName());
+            cityCounts.put(city.getId(), 0);
+            trie.put(CITY + ":" + city.getId(), CITY, city.getId(), 0, city.getName(), 0);
+        }
+        placeRepository.findAllWithCityByStatus(PlaceStatus.ACTIVE).forEach(place -> publish(toListing(place)));
+
+        log.info("Search suggestions built: {} entries in {} ms", trie.size(), System.currentTimeMillis() - start);
+    }
+
+    @TransactionalEventListener
+    public synchronized void onPlaceChanged(PlaceChangedEvent event) {
+        if (event.getType() == PlaceChangedEvent.Type.IMAGES_CHANGED ||
+            event.getType() == PlaceChangedEvent.Type.RATING_CHANGED) {
+            return;
+        }
+        Listing previous = listings.get(event.getPlaceId());
+        if (previous != null) {
+            withdraw(previous);
+        }
+        if (event.getType() == PlaceChangedEvent.Type.DELETED) {
+            return;
+        }
+        placeRepository.findById(event.getPlaceId())
+            .filter(place -> place.getStatus() == PlaceStatus.ACTIVE)
+            .ifPresent(place -> publish(toListing(place)));
+    }
+
+    public List<SuggestionDto> suggest(String query, int limit) {
+        return trie.suggest(query, Math.max(1, Math.min(limit, TOP_K))).stream()
+            .map(entry -> SuggestionDto.builder()
+                .type(entry.getType())
+                .id(entry.getId())
+                .label(entry.getLabel())
+                .listingCount(entry.getWeight())
+                .build())
+            .collect(Collectors.toList());
+    }
+
+    private void publish(Listing listing) {
+        listings.put(listing.placeId, listing);
+        cityNames.putIfAbsent(listing.cityId, listing.cityName);
+        trie.put(PLACE + ":" + listing.placeId, PLACE, listing.placeId, 2, listing.name, 1);
+        adjustCity(listing.cityId, 1);
+        if (listing.district != null && !listing.district.isBlank()) {
+            adjustDistrict(listing, 1);
+        }
+    }
+
+    private void withdraw(Listing listing) {
+        listings.remove(listing.placeId);
+        trie.remove(PLACE + ":" + listing.placeId);
+        adjustCity(listing.cityId, -1);
+        if (listing.district != null && !listing.district.isBlank()) {
+            adjustDistrict(listing, -1);
+        }
+    }
+
+    private void adjustCity(Long cityId, int delta) {
+        int count = cityCounts.merge(cityId, delta, Integer::sum);
+        trie.put(CITY + ":" + cityId, CITY, cityId, 0, cityNames.get(cityId), count);
+    }
+
+    private void adjustDistrict(Listing listing, int delta) {
+        String key = DISTRICT + ":" + listing.cityId + ":" + SearchText.fold(listing.district.trim());
+        int count = districtCounts.merge(key, delta, Integer::sum);
+        if (count > 0) {
+            trie.put(key, DISTRICT, listing.cityId, 1, listing.district.trim() + ", " + cityNames.get(listing.cityId), count);
+        } else {
+            districtCounts.remove(key);
+            trie.remove(key);
+        }
+    }
+
+    private Listing toListing(Place place) {
+        return new Listing(place.getId(), place.getCity().getId(), place.getCity().getName(),
+            place.getDistrict(), place.getName());
+    }
+
+    @AllArgsConstructor
+    private static final class Listing {
+        private final Long placeId;
+        private final Long cityId;
+        private final String cityName;
+        private final String district;
+        private final String name;
+    }
+}
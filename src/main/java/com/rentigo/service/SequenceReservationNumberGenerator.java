@@ -0,0 +1,25 @@
+package com.rentigo.service;
+
+import com.rentigo.util.BlockSequence;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import java.time.Year;
+
+// Numbers come from blocks of reservation_number_seq (INCREMENT BY BLOCK_SIZE), so every node draws
+// from its own block and the database is hit once per BLOCK_SIZE bookings.
+@Service
+public class SequenceReservationNumberGenerator implements ReservationNumberGenerator {
+    public static final int BLOCK_SIZE = 100;
+
+    private final BlockSequence sequence;
+
+    public SequenceReservationNumberGenerator(JdbcTemplate jdbcTemplate) {
+        this.sequence = new BlockSequence(
+            () -> jdbcTemplate.queryForObject("SELECT nextval('reservation_number_seq')", Long.class), BLOCK_SIZE);
+    }
+
+    @Override
+    public String next() {
+        return String.format("RNT-%d-%06d", Year.now().getValue(), sequence.next());
+    }
+}
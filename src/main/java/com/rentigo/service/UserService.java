@@ -5,12 +5,14 @@ import com.rentigo.dto.request.RegisterRequest;
 import com.rentigo.dto.request.UpdateUserRequest;
 import com.rentigo.entity.Role;
 import com.rentigo.entity.User;
+import com.rentigo.event.UserChangedEvent;
 import com.rentigo.exception.BadRequestException;
 import com.rentigo.exception.ConflictException;
 import com.rentigo.exception.ForbiddenException;
 import com.rentigo.exception.ResourceNotFoundException;
 import com.rentigo.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -20,6 +22,7 @@ import org.springframework.transaction.annotation.Transactional;
 public class UserService {
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final ApplicationEventPublisher eventPublisher;
 
     public UserDto toDto(User user) {
         return UserDto.builder()
@@ -95,6 +98,7 @@ public class UserService {
             user.setPassword(passwordEncoder.encode(request.getNewPassword()));
         }
 
+        eventPublisher.publishEvent(new UserChangedEvent(userId));
         return userRepository.save(user);
     }
 
@@ -103,6 +107,7 @@ public class UserService {
         User user = findById(userId);
         user.setAvatarUrl(avatarUrl);
         userRepository.save(user);
+        eventPublisher.publishEvent(new UserChangedEvent(userId));
     }
 
     @Transactional
@@ -111,6 +116,7 @@ public class UserService {
         if (user.getRole() == Role.USER) {
             user.setRole(Role.HOST);
             userRepository.save(user);
+            eventPublisher.publishEvent(new UserChangedEvent(userId));
         }
     }
 
@@ -126,5 +132,6 @@ public class UserService {
 
         User user = findById(userId);
         userRepository.delete(user);
+        eventPublisher.publishEvent(new UserChangedEvent(userId));
     }
 }
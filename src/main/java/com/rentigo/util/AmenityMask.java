@@ -0,0 +1,35 @@
+package com.rentigo.util;
+
+import com.rentigo.entity.Amenity;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
+
+// Amenity ids 1-64 map to bits 0-63 of places.amenity_mask. Higher ids overflow to the place_amenities join table.
+public class AmenityMask {
+    public static final long MAX_MASKED_ID = Long.SIZE;
+
+    public static long of(Collection<Amenity> amenities) {
+        return ofIds(amenities.stream().map(Amenity::getId).collect(Collectors.toList()));
+    }
+
+    public static long ofIds(Collection<Long> amenityIds) {
+        long mask = 0;
+        for (Long id : amenityIds) {
+            if (isMasked(id)) {
+                mask |= 1L << (id - 1);
+            }
+        }
+        return mask;
+    }
+
+    public static List<Long> overflowIds(Collection<Long> amenityIds) {
+        return amenityIds.stream()
+            .filter(id -> !isMasked(id))
+            .collect(Collectors.toList());
+    }
+
+    private static boolean isMasked(Long id) {
+        return id != null && id >= 1 && id <= MAX_MASKED_ID;
+    }
+}
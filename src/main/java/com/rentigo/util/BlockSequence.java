@@ -0,0 +1,47 @@
+package com.rentigo.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+// Hands out consecutive values from blocks of blockSize reserved through allocator, which must return the
+// first value of a fresh, never reused block. Only block refills take the lock; values left in a block at
+// shutdown are skipped, never reused.
+public class BlockSequence {
+    private final LongSupplier allocator;
+    private final long blockSize;
+    private volatile Block block;
+
+    public BlockSequence(LongSupplier allocator, long blockSize) {
+        this.allocator = allocator;
+        this.blockSize = blockSize;
+        this.block = new Block(0, 0);
+    }
+
+    public long next() {
+        while (true) {
+            Block current = block;
+            long value = current.next.getAndIncrement();
+            if (value < current.end) {
+                return value;
+            }
+            refill(current);
+        }
+    }
+
+    private synchronized void refill(Block exhausted) {
+        if (block == exhausted) {
+            long start = allocator.getAsLong();
+            block = new Block(start, start + blockSize);
+        }
+    }
+
+    private static final class Block {
+        private final AtomicLong next;
+        private final long end;
+
+        private Block(long start, long end) {
+            this.next = new AtomicLong(start);
+            this.end = end;
+        }
+    }
+}
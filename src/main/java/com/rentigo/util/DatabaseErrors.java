@@ -0,0 +1,17 @@
+package com.rentigo.util;
+
+import java.sql.SQLException;
+
+public class DatabaseErrors {
+    public static final String EXCLUSION_VIOLATION = "23P01";
+    public static final String RESERVATION_OVERLAP_MESSAGE = "Wybrane terminy są już zarezerwowane";
+
+    public static boolean isExclusionViolation(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLException && EXCLUSION_VIOLATION.equals(((SQLException) cause).getSQLState())) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,103 @@
+package com.rentigo.util;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+public class GeoHash {
+    public static final int MAX_PRECISION = 12;
+    private static final String BASE32 = "0123456789bcdefghjkmnpqrstuvwxyz";
+
+    public static String encode(double latitude, double longitude, int precision) {
+        double minLat = -90, maxLat = 90, minLng = -180, maxLng = 180;
+        StringBuilder hash = new StringBuilder(precision);
+        boolean even = true;
+        int bit = 0;
+        int ch = 0;
+        while (hash.length() < precision) {
+            if (even) {
+                double mid = (minLng + maxLng) / 2;
+                if (longitude >= mid) {
+                    ch = (ch << 1) | 1;
+                    minLng = mid;
+                } else {
+                    ch <<= 1;
+                    maxLng = mid;
+                }
+            } else {
+                double mid = (minLat + maxLat) / 2;
+                if (latitude >= mid) {
+                    ch = (ch << 1) | 1;
+                    minLat = mid;
+                } else {
+                    ch <<= 1;
+                    maxLat = mid;
+                }
+            }
+            even = !even;
+            if (++bit == 5) {
+                hash.append(BASE32.charAt(ch));
+                bit = 0;
+                ch = 0;
+            }
+        }
+        return hash.toString();
+    }
+
+    public static double cellHeight(int precision) {
+        return 180.0 / (1L << (5 * precision / 2));
+    }
+
+    public static double cellWidth(int precision) {
+        return 360.0 / (1L << ((5 * precision + 1) / 2));
+    }
+
+    public static long countCells(Box box, int precision) {
+        long rows = (long) Math.ceil((box.getMaxLat() - box.getMinLat()) / cellHeight(precision)) + 1;
+        long columns = (long) Math.ceil((box.getMaxLng() - box.getMinLng()) / cellWidth(precision)) + 1;
+        return rows * columns;
+    }
+
+    // Geohash prefixes of every cell at the given precision that intersects the box.
+    public static List<String> cover(Box box, int precision) {
+        double height = cellHeight(precision);
+        double width = cellWidth(precision);
+        Set<String> cells = new LinkedHashSet<>();
+        for (double lat = box.getMinLat(); ; lat += height) {
+            double rowLat = Math.min(lat, box.getMaxLat());
+            for (double lng = box.getMinLng(); ; lng += width) {
+                double columnLng = Math.min(lng, box.getMaxLng());
+                cells.add(encode(rowLat, columnLng, precision));
+                if (columnLng >= box.getMaxLng()) {
+                    break;
+                }
+            }
+            if (rowLat >= box.getMaxLat()) {
+                break;
+            }
+        }
+        return new ArrayList<>(cells);
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static final class Box {
+        private static final double KM_PER_DEGREE = 111.32;
+
+        private final double minLat;
+        private final double minLng;
+        private final double maxLat;
+        private final double maxLng;
+
+        public static Box around(double latitude, double longitude, double radiusKm) {
+            double latDelta = radiusKm / KM_PER_DEGREE;
+            double lngDelta = radiusKm / (KM_PER_DEGREE * Math.max(Math.cos(Math.toRadians(latitude)), 0.01));
+            return new Box(
+                Math.max(latitude - latDelta, -90), Math.max(longitude - lngDelta, -180),
+                Math.min(latitude + latDelta, 90), Math.min(longitude + lngDelta, 180));
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.rentigo.util;
+
+import java.text.Normalizer;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+public class SearchText {
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern NON_ALPHANUMERIC = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    public static String fold(String text) {
+        if (text == null) {
+            return "";
+        }
+        String lower = text.toLowerCase(Locale.ROOT).replace('ł', 'l');
+        return DIACRITICS.matcher(Normalizer.normalize(lower, Normalizer.Form.NFD)).replaceAll("");
+    }
+
+    public static List<String> tokens(String text) {
+        return Arrays.stream(NON_ALPHANUMERIC.split(fold(text)))
+            .filter(token -> !token.isEmpty())
+            .collect(Collectors.toList());
+    }
+
+    public static String toPrefixTsQuery(String text) {
+        return tokens(text).stream()
+            .map(token -> token + ":*")
+            .collect(Collectors.joining(" & "));
+    }
+}
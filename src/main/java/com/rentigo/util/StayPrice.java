@@ -0,0 +1,25 @@
+package com.rentigo.util;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+// Pricing rules shared by reservations and search quotes; PlaceRepositoryImpl mirrors them in SQL for sorting.
+@Getter
+@AllArgsConstructor
+public class StayPrice {
+    public static final BigDecimal SERVICE_FEE_RATE = new BigDecimal("0.05");
+
+    private final BigDecimal nightsPrice;
+    private final BigDecimal cleaningFee;
+    private final BigDecimal serviceFee;
+    private final BigDecimal totalPrice;
+
+    public static StayPrice of(BigDecimal pricePerNight, BigDecimal cleaningFee, long nights) {
+        BigDecimal nightsPrice = pricePerNight.multiply(BigDecimal.valueOf(nights));
+        BigDecimal fee = cleaningFee != null ? cleaningFee : BigDecimal.ZERO;
+        BigDecimal serviceFee = nightsPrice.multiply(SERVICE_FEE_RATE).setScale(2, RoundingMode.HALF_UP);
+        return new StayPrice(nightsPrice, fee, serviceFee, nightsPrice.add(fee).add(serviceFee));
+    }
+}
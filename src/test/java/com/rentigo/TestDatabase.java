@@ -0,0 +1,18 @@
+package com.rentigo;
+
+import org.springframework.test.context.DynamicPropertyRegistry;
+
+// Integration tests need PostgreSQL (the schema relies on its extensions). They run only against the
+// throwaway database named in RENTIGO_TEST_DB_URL and never fall back to the application's own database.
+public final class TestDatabase {
+    public static final String URL_VARIABLE = "RENTIGO_TEST_DB_URL";
+
+    private TestDatabase() {
+    }
+
+    public static void register(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> System.getenv(URL_VARIABLE));
+        registry.add("spring.datasource.username", () -> System.getenv().getOrDefault("RENTIGO_TEST_DB_USERNAME", "postgres"));
+        registry.add("spring.datasource.password", () -> System.getenv().getOrDefault("RENTIGO_TEST_DB_PASSWORD", "postgres"));
+    }
+}
@@ -0,0 +1,158 @@
+package com.rentigo.service;
+
+import com.rentigo.TestDatabase;
+import com.rentigo.entity.City;
+import com.rentigo.entity.Favorite;
+import com.rentigo.entity.Place;
+import com.rentigo.entity.PlaceImage;
+import com.rentigo.entity.PlaceStatus;
+import com.rentigo.entity.PlaceType;
+import com.rentigo.entity.Reservation;
+import com.rentigo.entity.ReservationStatus;
+import com.rentigo.entity.Role;
+import com.rentigo.entity.User;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.annotation.Transactional;
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// List pages must cost a fixed number of statements whatever their size. Fixtures live in the test
+// transaction and are rolled back; the persistence context is cleared before each measurement so
+// lazy loads are not hidden by it.
+@SpringBootTest(properties = {
+    "spring.jpa.properties.hibernate.generate_statistics=true",
+    "spring.rabbitmq.listener.simple.auto-startup=false"
+})
+@EnabledIfEnvironmentVariable(named = TestDatabase.URL_VARIABLE, matches = ".+")
+@Transactional
+class ListingStatementCountTest {
+    private static final int PLACES = 8;
+
+    @Autowired
+    private PlaceService placeService;
+    @Autowired
+    private FavoriteService favoriteService;
+    @Autowired
+    private ReservationService reservationService;
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private User guest;
+    private final List<Place> places = new ArrayList<>();
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        TestDatabase.register(registry);
+    }
+
+    @BeforeEach
+    void createListings() {
+        long suffix = System.nanoTime();
+        City city = persist(City.builder().name("Statement City " + suffix).country("Polska").build());
+        User host = persist(user("host-" + suffix, Role.HOST));
+        guest = persist(user("guest-" + suffix, Role.USER));
+        for (int i = 0; i < PLACES; i++) {
+            Place place = persist(Place.builder()
+                .name("Statement place " + i)
+                .city(city)
+                .address("Testowa " + i)
+                .type(PlaceType.APARTMENT)
+                .pricePerNight(new BigDecimal("200.00"))
+                .maxGuests(4)
+                .bedrooms(2)
+                .bathrooms(1)
+                .status(PlaceStatus.ACTIVE)
+                .owner(host)
+                .build());
+            persist(PlaceImage.builder().place(place).url("/uploads/places/" + i + ".jpg").isMain(true).displayOrder(0).build());
+            persist(Reservation.builder()
+                .reservationNumber("RNT-TEST-" + suffix + "-" + i)
+                .place(place)
+                .user(guest)
+                .checkIn(LocalDate.now().plusDays(30))
+                .checkOut(LocalDate.now().plusDays(33))
+                .guests(2)
+                .nightsPrice(new BigDecimal("600.00"))
+                .totalPrice(new BigDecimal("600.00"))
+                .status(ReservationStatus.CONFIRMED)
+                .build());
+            places.add(place);
+        }
+    }
+
+    @Test
+    void listingPageCostIsIndependentOfPageSize() {
+        Sort newestFirst = Sort.by("createdAt").descending();
+        long half = statements(PLACES / 2, () -> placeService.getActivePlaces(PageRequest.of(0, PLACES / 2, newestFirst), guest).getContent());
+        long full = statements(PLACES, () -> placeService.getActivePlaces(PageRequest.of(0, PLACES, newestFirst), guest).getContent());
+        assertThat(full).isEqualTo(half);
+    }
+
+    @Test
+    void favoritesCostIsIndependentOfTheirCount() {
+        places.subList(0, PLACES / 2).forEach(this::favorite);
+        long half = statements(PLACES / 2, () -> favoriteService.getUserFavorites(guest));
+        places.subList(PLACES / 2, PLACES).forEach(this::favorite);
+        long full = statements(PLACES, () -> favoriteService.getUserFavorites(guest));
+        assertThat(full).isEqualTo(half);
+    }
+
+    @Test
+    void reservationPageCostIsIndependentOfPageSize() {
+        places.subList(0, PLACES / 2).forEach(this::favorite);
+        Sort newestFirst = Sort.by("createdAt", "id").descending();
+        long half = statements(PLACES / 2, () -> reservationService.getUserReservations(guest, PageRequest.of(0, PLACES / 2, newestFirst)).getContent());
+        long full = statements(PLACES, () -> reservationService.getUserReservations(guest, PageRequest.of(0, PLACES, newestFirst)).getContent());
+        assertThat(full).isEqualTo(half);
+    }
+
+    private long statements(int expectedSize, Supplier<List<?>> page) {
+        entityManager.flush();
+        entityManager.clear();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        assertThat(page.get()).hasSize(expectedSize);
+        return statistics.getPrepareStatementCount();
+    }
+
+    private void favorite(Place place) {
+        persist(Favorite.builder()
+            .user(entityManager.getReference(User.class, guest.getId()))
+            .place(entityManager.getReference(Place.class, place.getId()))
+            .build());
+    }
+
+    private static User user(String name, Role role) {
+        return User.builder()
+            .email(name + "@statements.test")
+            .password("{noop}secret")
+            .firstName("Test")
+            .lastName(name)
+            .role(role)
+            .build();
+    }
+
+    private <T> T persist(T entity) {
+        entityManager.persist(entity);
+        return entity;
+    }
+}
@@ -0,0 +1,129 @@
+package com.rentigo.service;
+
+import com.rentigo.TestDatabase;
+import com.rentigo.dto.request.CreateReservationRequest;
+import com.rentigo.entity.City;
+import com.rentigo.entity.Place;
+import com.rentigo.entity.PlaceStatus;
+import com.rentigo.entity.PlaceType;
+import com.rentigo.entity.Role;
+import com.rentigo.entity.User;
+import com.rentigo.exception.ConflictException;
+import com.rentigo.repository.CityRepository;
+import com.rentigo.repository.PlaceRepository;
+import com.rentigo.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Parallel bookings of the same place and dates all pass the pre-check in createReservation; only
+// reservations_no_overlap keeps them apart. The bookings must commit to race, so each run books a
+// fresh place on the test database instead of rolling back.
+@SpringBootTest(properties = "spring.rabbitmq.listener.simple.auto-startup=false")
+@EnabledIfEnvironmentVariable(named = TestDatabase.URL_VARIABLE, matches = ".+")
+class ReservationOverlapConcurrencyTest {
+    private static final int BOOKINGS = 16;
+
+    @Autowired
+    private ReservationService reservationService;
+    @Autowired
+    private CityRepository cityRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private PlaceRepository placeRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        TestDatabase.register(registry);
+    }
+
+    @Test
+    void onlyOneOfParallelBookingsForTheSameDatesSucceeds() throws Exception {
+        long suffix = System.nanoTime();
+        City city = cityRepository.save(City.builder().name("Overlap City " + suffix).country("Polska").build());
+        User host = userRepository.save(user("host-" + suffix, Role.HOST));
+        Place place = placeRepository.save(Place.builder()
+            .name("Overlap place " + suffix)
+            .city(city)
+            .address("Testowa 1")
+            .type(PlaceType.APARTMENT)
+            .pricePerNight(new BigDecimal("200.00"))
+            .maxGuests(4)
+            .bedrooms(2)
+            .bathrooms(1)
+            .status(PlaceStatus.ACTIVE)
+            .owner(host)
+            .build());
+        List<User> guests = new ArrayList<>();
+        for (int i = 0; i < BOOKINGS; i++) {
+            guests.add(userRepository.save(user("guest-" + suffix + "-" + i, Role.USER)));
+        }
+        LocalDate checkIn = LocalDate.now().plusDays(200);
+        LocalDate checkOut = checkIn.plusDays(3);
+
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(BOOKINGS);
+        int booked = 0;
+        int rejected = 0;
+        try {
+            List<Future<Boolean>> bookings = new ArrayList<>();
+            for (User guest : guests) {
+                bookings.add(executor.submit(() -> {
+                    start.await();
+                    try {
+                        reservationService.createReservation(
+                            new CreateReservationRequest(place.getId(), checkIn, checkOut, 2), guest);
+                        return true;
+                    } catch (ConflictException e) {
+                        return false;
+                    }
+                }));
+            }
+            start.countDown();
+            for (Future<Boolean> booking : bookings) {
+                if (booking.get()) {
+                    booked++;
+                } else {
+                    rejected++;
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(booked).isEqualTo(1);
+        assertThat(rejected).isEqualTo(BOOKINGS - 1);
+        Long active = jdbcTemplate.queryForObject(
+            "SELECT count(*) FROM reservations WHERE place_id = ? AND status IN ('PENDING', 'CONFIRMED') " +
+                "AND check_in <= ? AND check_out >= ?",
+            Long.class, place.getId(), checkOut, checkIn);
+        assertThat(active).isEqualTo(1);
+    }
+
+    private static User user(String name, Role role) {
+        return User.builder()
+            .email(name + "@overlap.test")
+            .password("{noop}secret")
+            .firstName("Test")
+            .lastName(name)
+            .role(role)
+            .build();
+    }
+}
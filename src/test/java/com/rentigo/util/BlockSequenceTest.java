@@ -0,0 +1,68 @@
+package com.rentigo.util;
+
+import org.junit.jupiter.api.Test;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BlockSequenceTest {
+    private static final int BLOCK_SIZE = 100;
+    private static final int THREADS = 16;
+    private static final int PER_THREAD = 20_000;
+
+    @Test
+    void handsOutConsecutiveValuesFromOneThread() {
+        AtomicLong database = new AtomicLong(1);
+        BlockSequence sequence = new BlockSequence(() -> database.getAndAdd(BLOCK_SIZE), BLOCK_SIZE);
+
+        for (long expected = 1; expected <= 3 * BLOCK_SIZE; expected++) {
+            assertThat(sequence.next()).isEqualTo(expected);
+        }
+    }
+
+    // Stands in for nextval on a sequence with INCREMENT BY BLOCK_SIZE, counting round trips.
+    @Test
+    void valuesStayUniqueUnderContention() throws Exception {
+        AtomicLong database = new AtomicLong(1);
+        AtomicInteger allocations = new AtomicInteger();
+        BlockSequence sequence = new BlockSequence(() -> {
+            allocations.incrementAndGet();
+            return database.getAndAdd(BLOCK_SIZE);
+        }, BLOCK_SIZE);
+
+        Set<Long> seen = ConcurrentHashMap.newKeySet();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> workers = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                workers.add(executor.submit(() -> {
+                    start.await();
+                    for (int j = 0; j < PER_THREAD; j++) {
+                        seen.add(sequence.next());
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        int total = THREADS * PER_THREAD;
+        assertThat(seen).hasSize(total);
+        assertThat(allocations.get()).isEqualTo(total / BLOCK_SIZE);
+    }
+}